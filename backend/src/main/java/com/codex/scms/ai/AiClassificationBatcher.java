@@ -0,0 +1,156 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.config.AsyncConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects classification requests for a short window (or until the batch is full) and sends them to
+ * Gemini as one prompt. With batching disabled every request is classified immediately on the caller.
+ */
+@Slf4j
+@Component
+public class AiClassificationBatcher {
+
+    private final AiClassificationService aiClassificationService;
+    private final ClassificationCache classificationCache;
+    private final AppProperties appProperties;
+    private final TaskExecutor executor;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ai-batch-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+    private List<PendingClassification> pending = new ArrayList<>();
+    private ScheduledFuture<?> windowFlush;
+
+    public AiClassificationBatcher(
+        AiClassificationService aiClassificationService,
+        ClassificationCache classificationCache,
+        AppProperties appProperties,
+        @Qualifier(AsyncConfig.CLASSIFICATION_EXECUTOR) TaskExecutor executor
+    ) {
+        this.aiClassificationService = aiClassificationService;
+        this.classificationCache = classificationCache;
+        this.appProperties = appProperties;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<AiClassificationService.AiClassificationResult> classify(AiClassificationService.AiClassificationRequest request) {
+        AppProperties.Batch batch = appProperties.getAi().getBatch();
+        if (!batch.isEnabled()) {
+            return CompletableFuture.completedFuture(aiClassificationService.classify(request));
+        }
+        Optional<AiClassificationService.AiClassificationResult> routed =
+            aiClassificationService.routeLocally(request.title(), request.description(), request.area());
+        if (routed.isPresent()) {
+            return CompletableFuture.completedFuture(routed.get());
+        }
+        String key = ClassificationCache.keyFor(request.title(), request.description(), request.area(), request.imageUrls());
+        return classificationCache.getOrLoad(key, () -> enqueue(request, batch));
+    }
+
+    private CompletableFuture<AiClassificationService.AiClassificationResult> enqueue(
+        AiClassificationService.AiClassificationRequest request,
+        AppProperties.Batch batch
+    ) {
+        PendingClassification entry = new PendingClassification(request, new CompletableFuture<>());
+        List<PendingClassification> full = null;
+        synchronized (lock) {
+            pending.add(entry);
+            if (pending.size() >= batch.getMaxSize()) {
+                full = drainLocked();
+            } else if (pending.size() == 1) {
+                windowFlush = timer.schedule(this::flushWindow, batch.getWindowMs(), TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return entry.result();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        List<PendingClassification> remaining;
+        synchronized (lock) {
+            remaining = drainLocked();
+        }
+        if (!remaining.isEmpty()) {
+            run(remaining);
+        }
+    }
+
+    private void flushWindow() {
+        List<PendingClassification> due;
+        synchronized (lock) {
+            due = drainLocked();
+        }
+        if (!due.isEmpty()) {
+            dispatch(due);
+        }
+    }
+
+    private List<PendingClassification> drainLocked() {
+        List<PendingClassification> drained = pending;
+        pending = new ArrayList<>();
+        if (windowFlush != null) {
+            windowFlush.cancel(false);
+            windowFlush = null;
+        }
+        return drained;
+    }
+
+    private void dispatch(List<PendingClassification> batch) {
+        try {
+            executor.execute(() -> run(batch));
+        } catch (TaskRejectedException ex) {
+            // Never call Gemini here: window flushes run on the single timer thread. The complaints stay NEW
+            // and the pipeline's recovery sweep queues them again.
+            log.warn("Classification executor is saturated; dropping AI batch of {} complaints", batch.size());
+            batch.forEach(entry -> entry.result().completeExceptionally(ex));
+        }
+    }
+
+    private void run(List<PendingClassification> batch) {
+        try {
+            Map<UUID, AiClassificationService.AiClassificationResult> results = aiClassificationService.classifyBatch(
+                batch.stream().map(PendingClassification::request).toList());
+            for (PendingClassification entry : batch) {
+                AiClassificationService.AiClassificationResult result = results.get(entry.request().complaintId());
+                if (result != null) {
+                    entry.result().complete(result);
+                } else {
+                    entry.result().completeExceptionally(new GeminiSaturatedException("No Gemini capacity for this complaint"));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("AI batch of {} complaints failed", batch.size(), ex);
+            batch.forEach(entry -> entry.result().completeExceptionally(ex));
+        }
+    }
+
+    private record PendingClassification(
+        AiClassificationService.AiClassificationRequest request,
+        CompletableFuture<AiClassificationService.AiClassificationResult> result
+    ) {}
+}
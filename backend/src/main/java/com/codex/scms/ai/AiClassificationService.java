@@ -1,110 +1,108 @@
 package com.codex.scms.ai;
 
 import com.codex.scms.config.AppProperties;
+import com.codex.scms.department.DepartmentIndex;
 import com.codex.scms.domain.entity.Complaint;
 import com.codex.scms.domain.entity.Department;
 import com.codex.scms.domain.enums.ComplaintSeverity;
-import com.codex.scms.repository.DepartmentRepository;
+import com.codex.scms.upload.LocalImageResolver;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
-import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.LocalDate;
-import java.util.Base64;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AiClassificationService {
 
-    // Retained to avoid breaking constructor/tests that already instantiate this service.
-    @SuppressWarnings("unused")
-    private final RestTemplate restTemplate;
+    private final GeminiClient geminiClient;
     private final ObjectMapper objectMapper;
+    private final DepartmentIndex departmentIndex;
+    private final ClassificationCache classificationCache;
+    private final LocalImageResolver localImageResolver;
+    private final LocalComplaintClassifier localClassifier;
     private final AppProperties appProperties;
-    private final DepartmentRepository departmentRepository;
 
     private final HttpClient httpClient = HttpClient.newHttpClient();
     private static final int MAX_AI_IMAGES = 3;
     private static final int MAX_INLINE_IMAGE_BYTES = 2 * 1024 * 1024;
+    private static final Duration IMAGE_FETCH_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String CLASSIFIER_INSTRUCTIONS = """
+        You are an institutional complaint classifier.
+
+        Departments:
+        - Electrical
+        - Plumbing
+        - IT
+        - Hostel Maintenance
+        - Mess
+        - Security
+        - Harassment Response
+        - Academic
+        - Faculty
+        - Administration
+
+        Criticality Levels:
+        1. Low
+        2. Moderate
+        3. High
+        4. Critical
+
+        Rules:
+        - Harassment must be Critical.
+        - Snake found is Critical.
+        - Broken tap is Moderate.
+        """;
 
     public AiClassificationResult classify(String title, String description, String area, LocalDate complaintDate, List<String> imageUrls) {
-        try {
-            if (appProperties.getAi().getApiKey() == null || appProperties.getAi().getApiKey().isBlank()) {
-                throw new IllegalStateException("AI_API_KEY is missing for Gemini classification");
-            }
+        Optional<AiClassificationResult> routed = routeLocally(title, description, area);
+        if (routed.isPresent()) {
+            return routed.get();
+        }
+        String key = ClassificationCache.keyFor(title, description, area, imageUrls);
+        return classificationCache.getOrLoad(key,
+            () -> CompletableFuture.completedFuture(classifyUncached(title, description, area, complaintDate, imageUrls))
+        ).join();
+    }
 
+    private AiClassificationResult classifyUncached(String title, String description, String area, LocalDate complaintDate, List<String> imageUrls) {
+        try {
             String prompt = buildPrompt(title, description, area, complaintDate);
-            String requestBody = buildGeminiRequest(prompt, imageUrls == null ? List.of() : imageUrls);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(buildGeminiUrl()))
-                .header("Content-Type", "application/json")
-                .timeout(Duration.ofMillis(appProperties.getAi().getTimeoutMs()))
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            String rawBody = response.body();
-            if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                throw new IllegalStateException("Gemini API returned HTTP " + response.statusCode() + ": " + rawBody);
-            }
+            GeminiRequestBody requestBody = buildGeminiRequest(prompt, imageUrls);
+            String rawBody = geminiClient.generateContent(requestBody);
 
             JsonNode modelJson = parseGeminiModelOutput(rawBody);
             logAiJson(modelJson);
-
-            String severityRaw = firstText(modelJson, "criticality", "severity", "aiSeverity");
-            ComplaintSeverity severity = mapCriticalityToSeverity(severityRaw).orElse(ComplaintSeverity.MEDIUM);
-
-            String deptName = firstText(modelJson, "department", "departmentSuggestion", "suggestedDepartment");
-            Department suggestedDepartment = resolveDepartment(deptName).orElse(null);
-
-            log.info(
-                "AI extracted -> criticality='{}', mappedSeverity='{}', suggestedDepartment='{}', resolvedDepartment='{}'",
-                severityRaw,
-                severity,
-                deptName,
-                suggestedDepartment == null ? null : suggestedDepartment.getName()
-            );
-
-            if (deptName != null && !deptName.isBlank() && suggestedDepartment == null) {
-                List<String> availableDepartments = departmentRepository.findAll().stream()
-                    .map(Department::getName)
-                    .sorted(String.CASE_INSENSITIVE_ORDER)
-                    .toList();
-                log.warn("AI department '{}' could not be mapped to any configured department. Available departments={}",
-                    deptName, availableDepartments);
-            }
-
-            return new AiClassificationResult(severity, suggestedDepartment, rawBody, false, null);
+            return toResult(modelJson, rawBody);
+        } catch (GeminiSaturatedException ex) {
+            // Gemini is only slow: leave the complaint for a later retry rather than pin a fallback on it.
+            throw ex;
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
-            String error = "Gemini request interrupted";
-            log.warn("AI classification failed, using fallback: {}", error, ex);
-            return new AiClassificationResult(ComplaintSeverity.MEDIUM, null, null, true, error);
+            return fallback("Gemini request interrupted", ex, title, description, area);
         } catch (Exception ex) {
-            String error = (ex.getMessage() == null || ex.getMessage().isBlank())
-                ? ex.getClass().getSimpleName()
-                : ex.getMessage();
-            log.warn("AI classification failed, using fallback: {}", error, ex);
-            return new AiClassificationResult(ComplaintSeverity.MEDIUM, null, null, true, error);
+            return fallback(errorMessage(ex), ex, title, description, area);
         }
     }
 
@@ -113,112 +111,231 @@ public class AiClassificationService {
         return classify(complaint.getTitle(), complaint.getDescription(), complaint.getArea(), complaint.getComplaintDate(), imageUrls);
     }
 
-    private String buildGeminiRequest(String prompt, List<String> imageUrls) throws Exception {
-        ObjectNode root = objectMapper.createObjectNode();
-        ArrayNode contents = root.putArray("contents");
+    public AiClassificationResult classify(AiClassificationRequest request) {
+        return classify(request.title(), request.description(), request.area(), request.complaintDate(), request.imageUrls());
+    }
+
+    /**
+     * Classifies several complaints with a single generateContent call. Items the model skipped, or the
+     * whole batch when its response cannot be parsed, are retried with one call per complaint. Complaints no
+     * Gemini permit freed up for are left out of the result. Bypasses the classification cache; callers are
+     * expected to have consulted it before batching.
+     */
+    public Map<UUID, AiClassificationResult> classifyBatch(List<AiClassificationRequest> requests) {
+        Map<UUID, AiClassificationResult> results = new LinkedHashMap<>();
+        if (requests.isEmpty()) {
+            return results;
+        }
+        if (requests.size() > 1 && geminiClient.isConfigured()) {
+            try {
+                String rawBody = geminiClient.generateContent(buildGeminiBatchRequest(requests));
+                JsonNode modelJson = parseGeminiModelOutput(rawBody);
+                JsonNode items = modelJson.isArray() ? modelJson : modelJson.path("results");
+                if (!items.isArray()) {
+                    throw new IllegalStateException("Gemini batch response is not a JSON array");
+                }
+                Map<String, AiClassificationRequest> byId = new HashMap<>();
+                requests.forEach(r -> byId.put(r.complaintId().toString(), r));
+                for (JsonNode item : items) {
+                    String id = firstText(item, "id", "complaintId");
+                    AiClassificationRequest request = id == null ? null : byId.get(id);
+                    if (request != null && !results.containsKey(request.complaintId())) {
+                        results.put(request.complaintId(), toResult(item, item.toString()));
+                    }
+                }
+                log.info("AI batch classified {}/{} complaints in one request", results.size(), requests.size());
+            } catch (GeminiSaturatedException ex) {
+                log.warn("No Gemini capacity for an AI batch of {} complaints; leaving them for a retry", requests.size());
+                return results;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                log.warn("AI batch classification interrupted, falling back to single-item calls");
+            } catch (Exception ex) {
+                log.warn("AI batch classification failed, falling back to single-item calls: {}", errorMessage(ex));
+            }
+        }
+        for (AiClassificationRequest request : requests) {
+            if (!results.containsKey(request.complaintId())) {
+                try {
+                    results.put(request.complaintId(), classifyUncached(request.title(), request.description(),
+                        request.area(), request.complaintDate(), request.imageUrls()));
+                } catch (GeminiSaturatedException ex) {
+                    log.warn("No Gemini capacity left for this AI batch; leaving {} complaints for a retry",
+                        requests.size() - results.size());
+                    break;
+                }
+            }
+        }
+        return results;
+    }
 
-        ObjectNode contentObj = contents.addObject();
-        ArrayNode parts = contentObj.putArray("parts");
+    private AiClassificationResult toResult(JsonNode modelJson, String rawResponseJson) {
+        String severityRaw = firstText(modelJson, "criticality", "severity", "aiSeverity");
+        ComplaintSeverity severity = mapCriticalityToSeverity(severityRaw).orElse(ComplaintSeverity.MEDIUM);
 
-        parts.addObject().put("text", prompt);
+        String deptName = firstText(modelJson, "department", "departmentSuggestion", "suggestedDepartment");
+        Department suggestedDepartment = departmentIndex.resolve(deptName).orElse(null);
 
-        int attachedCount = 0;
-        for (String url : imageUrls) {
+        log.info(
+            "AI extracted -> criticality='{}', mappedSeverity='{}', suggestedDepartment='{}', resolvedDepartment='{}'",
+            severityRaw,
+            severity,
+            deptName,
+            suggestedDepartment == null ? null : suggestedDepartment.getName()
+        );
+
+        if (deptName != null && !deptName.isBlank() && suggestedDepartment == null) {
+            log.warn("AI department '{}' could not be mapped to any configured department. Available departments={}",
+                deptName, departmentIndex.names());
+        }
+
+        return new AiClassificationResult(severity, suggestedDepartment, rawResponseJson, false, null);
+    }
+
+    /**
+     * Returns the local model's answer when the first-pass router is enabled and the model is confident about
+     * both severity and department, so Gemini does not need to be called.
+     */
+    public Optional<AiClassificationResult> routeLocally(String title, String description, String area) {
+        AppProperties.LocalModel config = appProperties.getAi().getLocalModel();
+        if (!config.isRouterEnabled()) {
+            return Optional.empty();
+        }
+        return localClassifier.predict(title, description, area)
+            .filter(p -> p.severityConfidence() >= config.getRouterMinConfidence()
+                && p.departmentConfidence() >= config.getRouterMinConfidence())
+            .flatMap(p -> departmentIndex.findById(p.departmentId())
+                .map(department -> new AiClassificationResult(p.severity(), department, null, false, null)));
+    }
+
+    private AiClassificationResult fallback(String error, Exception ex, String title, String description, String area) {
+        if (ex instanceof GeminiUnavailableException) {
+            log.info("AI classification skipped, using fallback: {}", error);
+        } else {
+            log.warn("AI classification failed, using fallback: {}", error, ex);
+        }
+        Optional<LocalComplaintClassifier.LocalPrediction> local = localClassifier.predict(title, description, area);
+        if (local.isEmpty()) {
+            return new AiClassificationResult(ComplaintSeverity.MEDIUM, null, null, true, error);
+        }
+        LocalComplaintClassifier.LocalPrediction prediction = local.get();
+        Department department = prediction.departmentConfidence() >= appProperties.getAi().getLocalModel().getFallbackMinConfidence()
+            ? departmentIndex.findById(prediction.departmentId()).orElse(null)
+            : null;
+        return new AiClassificationResult(prediction.severity(), department, null, true, error + "; local model used");
+    }
+
+    private String errorMessage(Exception ex) {
+        return (ex.getMessage() == null || ex.getMessage().isBlank())
+            ? ex.getClass().getSimpleName()
+            : ex.getMessage();
+    }
+
+    private GeminiRequestBody buildGeminiRequest(String prompt, List<String> imageUrls) {
+        List<ImagePart> images = fetchImageParts(imageUrls).join();
+        GeminiRequestBody body = new GeminiRequestBody(objectMapper).addText(prompt);
+        images.forEach(image -> image.appendTo(body));
+        return body;
+    }
+
+    private GeminiRequestBody buildGeminiBatchRequest(List<AiClassificationRequest> requests) {
+        // Start every download up front so images of all complaints in the batch are fetched concurrently.
+        List<CompletableFuture<List<ImagePart>>> images = requests.stream()
+            .map(request -> fetchImageParts(request.imageUrls()))
+            .toList();
+        GeminiRequestBody body = new GeminiRequestBody(objectMapper).addText(buildBatchPrompt(requests.size()));
+        for (int i = 0; i < requests.size(); i++) {
+            AiClassificationRequest request = requests.get(i);
+            // Images directly follow the text of the complaint they belong to.
+            body.addText(describeComplaint(request.complaintId(), request.title(), request.description(),
+                request.area(), request.complaintDate()));
+            images.get(i).join().forEach(image -> image.appendTo(body));
+        }
+        return body;
+    }
+
+    private CompletableFuture<List<ImagePart>> fetchImageParts(List<String> imageUrls) {
+        List<CompletableFuture<Optional<ImagePart>>> candidates = new ArrayList<>();
+        for (String url : imageUrls == null ? List.<String>of() : imageUrls) {
             if (url == null || url.isBlank()) {
                 continue;
             }
-            if (attachedCount >= MAX_AI_IMAGES) {
-                break;
-            }
-
             // Gemini `file_data.file_uri` generally expects Google file URIs, not arbitrary public URLs.
             // For HTTP(S) URLs (like imgbb), fetch bytes and send as inline_data.
-            if (url.startsWith("http://") || url.startsWith("https://")) {
-                try {
-                    if (tryAddInlineImagePart(parts, url)) {
-                        attachedCount++;
-                    }
-                } catch (Exception imageEx) {
-                    log.info("Skipping AI image {} due to fetch/encode error: {}", url, imageEx.getMessage());
-                }
-                continue;
+            // Our own /uploads URLs are read straight from disk instead of looping back over HTTP.
+            if (localImageResolver.isLocalUrl(url)) {
+                candidates.add(CompletableFuture.completedFuture(readLocalImage(url)));
+            } else if (url.startsWith("http://") || url.startsWith("https://")) {
+                candidates.add(fetchInlineImage(url));
+            } else {
+                candidates.add(CompletableFuture.completedFuture(Optional.of(new ImagePart(mimeTypeFromUrl(url), url, null))));
             }
-
-            ObjectNode imagePart = parts.addObject();
-            ObjectNode fileData = imagePart.putObject("file_data");
-            fileData.put("mime_type", mimeTypeFromUrl(url));
-            fileData.put("file_uri", url);
-            attachedCount++;
         }
-
-        return objectMapper.writeValueAsString(root);
+        return CompletableFuture.allOf(candidates.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> candidates.stream()
+                .map(CompletableFuture::join)
+                .flatMap(Optional::stream)
+                .limit(MAX_AI_IMAGES)
+                .toList());
     }
 
-    private boolean tryAddInlineImagePart(ArrayNode parts, String url) throws Exception {
-        HttpRequest imageRequest = HttpRequest.newBuilder()
-            .uri(URI.create(url))
-            .timeout(Duration.ofSeconds(10))
-            .GET()
-            .build();
-        HttpResponse<byte[]> imageResponse = httpClient.send(imageRequest, HttpResponse.BodyHandlers.ofByteArray());
-        if (imageResponse.statusCode() < 200 || imageResponse.statusCode() >= 300) {
-            throw new IllegalStateException("Failed to fetch image for Gemini, HTTP " + imageResponse.statusCode());
-        }
-        byte[] bytes = imageResponse.body();
-        if (bytes == null || bytes.length == 0) {
-            throw new IllegalStateException("Fetched image is empty");
-        }
-        if (bytes.length > MAX_INLINE_IMAGE_BYTES) {
-            log.info("Skipping AI image {} because size {} exceeds {} bytes", url, bytes.length, MAX_INLINE_IMAGE_BYTES);
-            return false;
-        }
-        ObjectNode imagePart = parts.addObject();
-        ObjectNode inlineData = imagePart.putObject("inline_data");
-        inlineData.put("mime_type", mimeTypeFromUrl(url));
-        inlineData.put("data", Base64.getEncoder().encodeToString(bytes));
-        return true;
+    private CompletableFuture<Optional<ImagePart>> fetchInlineImage(String url) {
+        HttpRequest imageRequest;
+        try {
+            imageRequest = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(IMAGE_FETCH_TIMEOUT)
+                .GET()
+                .build();
+        } catch (IllegalArgumentException ex) {
+            log.info("Skipping AI image {} due to invalid URL: {}", url, ex.getMessage());
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return httpClient.sendAsync(imageRequest, cappedImageBody()).handle((response, ex) -> {
+            if (ex != null) {
+                Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                log.info("Skipping AI image {} due to fetch error: {}", url, cause.getMessage());
+                return Optional.empty();
+            }
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                log.info("Skipping AI image {}: fetch returned HTTP {}", url, response.statusCode());
+                return Optional.empty();
+            }
+            byte[] bytes = response.body();
+            if (bytes == null || bytes.length > MAX_INLINE_IMAGE_BYTES) {
+                log.info("Skipping AI image {} because its size exceeds {} bytes", url, MAX_INLINE_IMAGE_BYTES);
+                return Optional.empty();
+            }
+            if (bytes.length == 0) {
+                log.info("Skipping AI image {}: fetched image is empty", url);
+                return Optional.empty();
+            }
+            return Optional.of(new ImagePart(mimeTypeFromUrl(url), null, ByteBuffer.wrap(bytes)));
+        });
     }
 
-    private String buildGeminiUrl() {
-        String base = stripTrailingSlash(appProperties.getAi().getBaseUrl());
-        String endpoint = appProperties.getAi().getEndpoint();
-        if (endpoint == null || endpoint.isBlank()) {
-            endpoint = "/v1/models/gemini-2.5-flash:generateContent";
+    private Optional<ImagePart> readLocalImage(String url) {
+        Optional<ImagePart> image = localImageResolver.read(url, MAX_INLINE_IMAGE_BYTES)
+            .map(data -> new ImagePart(mimeTypeFromUrl(url), null, data));
+        if (image.isEmpty()) {
+            log.info("Skipping AI image {}: local upload is missing, empty or larger than {} bytes", url, MAX_INLINE_IMAGE_BYTES);
         }
-        if (!endpoint.startsWith("/")) {
-            endpoint = "/" + endpoint;
-        }
-        String url = base + endpoint;
-        String encodedKey = URLEncoder.encode(appProperties.getAi().getApiKey(), StandardCharsets.UTF_8);
-        return url + (url.contains("?") ? "&" : "?") + "key=" + encodedKey;
+        return image;
+    }
+
+    /** Discards bodies of failed or declared-oversize responses instead of buffering them. */
+    private static HttpResponse.BodyHandler<byte[]> cappedImageBody() {
+        return info -> {
+            long declaredLength = info.headers().firstValueAsLong("Content-Length").orElse(-1L);
+            if (info.statusCode() < 200 || info.statusCode() >= 300 || declaredLength > MAX_INLINE_IMAGE_BYTES) {
+                return HttpResponse.BodySubscribers.replacing(null);
+            }
+            return HttpResponse.BodySubscribers.ofByteArray();
+        };
     }
 
     private String buildPrompt(String title, String description, String area, LocalDate complaintDate) {
-        return """
-            You are an institutional complaint classifier.
-
-            Departments:
-            - Electrical
-            - Plumbing
-            - IT
-            - Hostel Maintenance
-            - Mess
-            - Security
-            - Harassment Response
-            - Academic
-            - Faculty
-            - Administration
-
-            Criticality Levels:
-            1. Low
-            2. Moderate
-            3. High
-            4. Critical
-
-            Rules:
-            - Harassment must be Critical.
-            - Snake found is Critical.
-            - Broken tap is Moderate.
+        return CLASSIFIER_INSTRUCTIONS + """
 
             Return strictly valid JSON only (no markdown, no explanation):
             {
@@ -239,6 +356,38 @@ public class AiClassificationService {
         );
     }
 
+    private String buildBatchPrompt(int count) {
+        return CLASSIFIER_INSTRUCTIONS + """
+
+            Classify each of the %d complaints below independently. Images, if any, follow the complaint they belong to.
+            Return strictly valid JSON only (no markdown, no explanation): an array with exactly one object per complaint,
+            copying its id verbatim:
+            [
+              {
+                "id": "<complaint id>",
+                "department": "... or null",
+                "criticality": "Low|Moderate|High|Critical"
+              }
+            ]
+            """.formatted(count);
+    }
+
+    private String describeComplaint(UUID id, String title, String description, String area, LocalDate complaintDate) {
+        return """
+            Complaint id: %s
+            Title: %s
+            Description: %s
+            Area: %s
+            Complaint Date: %s
+            """.formatted(
+            id,
+            safe(title),
+            safe(description),
+            safe(area),
+            complaintDate == null ? "" : complaintDate
+        );
+    }
+
     private JsonNode parseGeminiModelOutput(String rawResponse) throws Exception {
         JsonNode root = objectMapper.readTree(rawResponse);
         if (root.has("error")) {
@@ -310,67 +459,6 @@ public class AiClassificationService {
         return Optional.empty();
     }
 
-    private Optional<Department> resolveDepartment(String deptName) {
-        if (deptName == null || deptName.isBlank() || "null".equalsIgnoreCase(deptName.trim())) {
-            return Optional.empty();
-        }
-        String name = deptName.trim();
-
-        Optional<Department> direct = departmentRepository.findByNameIgnoreCase(name);
-        if (direct.isPresent()) {
-            return direct;
-        }
-
-        // Mild normalization for common model outputs vs. configured department names.
-        String normalized = name.replace("Department", "").trim();
-        direct = departmentRepository.findByNameIgnoreCase(normalized);
-        if (direct.isPresent()) {
-            return direct;
-        }
-
-        // Common aliases
-        if ("HOSTEL MAINTENANCE".equalsIgnoreCase(name)) {
-            return departmentRepository.findByNameIgnoreCase("Hostel");
-        }
-        if ("HARASSMENT RESPONSE".equalsIgnoreCase(name)) {
-            return departmentRepository.findByNameIgnoreCase("Harassment");
-        }
-        if ("INFORMATION TECHNOLOGY".equalsIgnoreCase(name)) {
-            return departmentRepository.findByNameIgnoreCase("IT");
-        }
-
-        String target = normalizeDepartmentLabel(name);
-        if (target.isBlank()) {
-            return Optional.empty();
-        }
-        return departmentRepository.findAll().stream()
-            .min(Comparator.comparingInt(d -> departmentDistanceScore(normalizeDepartmentLabel(d.getName()), target)))
-            .filter(d -> departmentDistanceScore(normalizeDepartmentLabel(d.getName()), target) <= 2);
-    }
-
-    private String normalizeDepartmentLabel(String value) {
-        return value == null ? "" : value
-            .toLowerCase(Locale.ROOT)
-            .replace("&", "and")
-            .replace("department", "")
-            .replaceAll("[^a-z0-9]+", " ")
-            .trim();
-    }
-
-    private int departmentDistanceScore(String candidate, String target) {
-        if (candidate.equals(target)) return 0;
-        if (candidate.contains(target) || target.contains(candidate)) return 1;
-        if (candidate.startsWith(target) || target.startsWith(candidate)) return 1;
-        // token overlap fallback for labels like "hostel maintenance" vs "hostel"
-        int overlap = 0;
-        for (String token : target.split(" ")) {
-            if (!token.isBlank() && candidate.contains(token)) {
-                overlap++;
-            }
-        }
-        return overlap > 0 ? 2 : 100;
-    }
-
     private String firstText(JsonNode node, String... fields) {
         for (String field : fields) {
             String direct = extractText(node.get(field));
@@ -423,15 +511,30 @@ public class AiClassificationService {
         return "image/jpeg";
     }
 
-    private String stripTrailingSlash(String value) {
-        if (value == null) return "";
-        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
-    }
-
     private String safe(String value) {
         return value == null ? "" : value;
     }
 
+    private record ImagePart(String mimeType, String fileUri, ByteBuffer data) {
+        void appendTo(GeminiRequestBody body) {
+            if (data != null) {
+                body.addInlineData(mimeType, data);
+            } else {
+                body.addFileData(mimeType, fileUri);
+            }
+        }
+    }
+
+    /** Detached snapshot of a complaint so classification can run outside the persistence context. */
+    public record AiClassificationRequest(
+        UUID complaintId,
+        String title,
+        String description,
+        String area,
+        LocalDate complaintDate,
+        List<String> imageUrls
+    ) {}
+
     public record AiClassificationResult(
         ComplaintSeverity severity,
         Department suggestedDepartment,
@@ -0,0 +1,181 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU + TTL cache of AI classifications keyed by a hash of the normalized complaint content.
+ * Concurrent requests for the same key share a single in-flight call. Fallback results are never cached.
+ */
+@Component
+public class ClassificationCache {
+
+    private final AppProperties appProperties;
+    private final LinkedHashMap<String, CachedResult> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, CompletableFuture<AiClassificationService.AiClassificationResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ClassificationCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.appProperties = appProperties;
+        counter(meterRegistry, "hit", hits);
+        counter(meterRegistry, "miss", misses);
+        counter(meterRegistry, "coalesced", coalesced);
+        FunctionCounter.builder("scms.ai.cache.evictions", evictions, LongAdder::sum)
+            .tag("cause", "size").register(meterRegistry);
+        FunctionCounter.builder("scms.ai.cache.evictions", expirations, LongAdder::sum)
+            .tag("cause", "expired").register(meterRegistry);
+        Gauge.builder("scms.ai.cache.size", this, ClassificationCache::size).register(meterRegistry);
+    }
+
+    public static String keyFor(String title, String description, String area, List<String> imageUrls) {
+        StringBuilder canonical = new StringBuilder();
+        canonical.append(normalize(title)).append('\u0000')
+            .append(normalize(description)).append('\u0000')
+            .append(normalize(area)).append('\u0000');
+        if (imageUrls != null) {
+            imageUrls.stream().filter(u -> u != null && !u.isBlank()).map(String::trim).sorted()
+                .forEach(u -> canonical.append(u).append('\u0000'));
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    public CompletableFuture<AiClassificationService.AiClassificationResult> getOrLoad(
+        String key,
+        Supplier<CompletableFuture<AiClassificationService.AiClassificationResult>> loader
+    ) {
+        if (!appProperties.getAi().getCache().isEnabled()) {
+            return loader.get();
+        }
+        AiClassificationService.AiClassificationResult cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<AiClassificationService.AiClassificationResult> leader = new CompletableFuture<>();
+        CompletableFuture<AiClassificationService.AiClassificationResult> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        // Another caller may have stored the result between the lookup and taking leadership.
+        cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            inFlight.remove(key, leader);
+            leader.complete(cached);
+            return leader;
+        }
+
+        misses.increment();
+        CompletableFuture<AiClassificationService.AiClassificationResult> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException ex) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(ex);
+            return leader;
+        }
+        loading.whenComplete((result, ex) -> {
+            if (ex == null && result != null && !result.fallbackUsed()) {
+                store(key, result);
+            }
+            inFlight.remove(key, leader);
+            if (ex != null) {
+                leader.completeExceptionally(ex);
+            } else {
+                leader.complete(result);
+            }
+        });
+        return leader;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized AiClassificationService.AiClassificationResult lookup(String key) {
+        CachedResult entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            entries.remove(key);
+            expirations.increment();
+            return null;
+        }
+        return entry.result();
+    }
+
+    private synchronized void store(String key, AiClassificationService.AiClassificationResult result) {
+        AppProperties.Cache cache = appProperties.getAi().getCache();
+        long expiresAt = System.nanoTime() + cache.getTtlSeconds() * 1_000_000_000L;
+        entries.put(key, new CachedResult(result, expiresAt));
+        Iterator<CachedResult> eldest = entries.values().iterator();
+        while (entries.size() > cache.getMaxEntries() && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void counter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("scms.ai.cache.requests", adder, LongAdder::sum)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private record CachedResult(AiClassificationService.AiClassificationResult result, long expiresAtNanos) {}
+}
@@ -0,0 +1,82 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+public class GeminiClient {
+
+    private final AppProperties appProperties;
+    private final GeminiGuard geminiGuard;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    public boolean isConfigured() {
+        String apiKey = appProperties.getAi().getApiKey();
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    /**
+     * Posts a generateContent request and returns the raw response body of a 2xx reply. Throws
+     * {@link GeminiUnavailableException} without calling out when the guard rejects the call.
+     */
+    public String generateContent(GeminiRequestBody requestBody) throws IOException, InterruptedException {
+        if (!isConfigured()) {
+            throw new IllegalStateException("AI_API_KEY is missing for Gemini classification");
+        }
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(buildGeminiUrl()))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofMillis(appProperties.getAi().getTimeoutMs()))
+            .POST(requestBody.publisher())
+            .build();
+
+        GeminiGuard.Permit permit = geminiGuard.acquire();
+        boolean failed = true;
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            // Client errors other than throttling and timeouts say nothing about upstream health.
+            failed = status >= 500 || status == 429 || status == 408;
+            String rawBody = response.body();
+            if (status < 200 || status >= 300) {
+                throw new IllegalStateException("Gemini API returned HTTP " + status + ": " + rawBody);
+            }
+            return rawBody;
+        } catch (InterruptedException ex) {
+            failed = false;
+            throw ex;
+        } finally {
+            permit.release(failed);
+        }
+    }
+
+    private String buildGeminiUrl() {
+        String base = stripTrailingSlash(appProperties.getAi().getBaseUrl());
+        String endpoint = appProperties.getAi().getEndpoint();
+        if (endpoint == null || endpoint.isBlank()) {
+            endpoint = "/v1/models/gemini-2.5-flash:generateContent";
+        }
+        if (!endpoint.startsWith("/")) {
+            endpoint = "/" + endpoint;
+        }
+        String url = base + endpoint;
+        String encodedKey = URLEncoder.encode(appProperties.getAi().getApiKey(), StandardCharsets.UTF_8);
+        return url + (url.contains("?") ? "&" : "?") + "key=" + encodedKey;
+    }
+
+    private String stripTrailingSlash(String value) {
+        if (value == null) return "";
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+}
@@ -0,0 +1,200 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker plus adaptive concurrency limit for Gemini calls. The breaker opens when the failure or
+ * slow-call rate over the last calls crosses its threshold, rejects calls while open, and lets a few probes
+ * through once the open period has passed. The in-flight limit grows additively on fast successes and
+ * shrinks multiplicatively on failures or slow calls, so a degraded upstream cannot tie up every worker; calls
+ * over the limit wait up to {@code ai.timeout-ms} for a permit before giving up.
+ */
+@Slf4j
+@Component
+public class GeminiGuard {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final AppProperties appProperties;
+    private final LongSupplier nanoClock;
+    private final Counter rejectedOpen;
+    private final Counter rejectedLimit;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    private boolean[] failures;
+    private boolean[] slowCalls;
+    private int windowCount;
+    private int windowIndex;
+
+    private double limit;
+    private int inFlight;
+
+    @Autowired
+    public GeminiGuard(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this(appProperties, meterRegistry, System::nanoTime);
+    }
+
+    GeminiGuard(AppProperties appProperties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.appProperties = appProperties;
+        this.nanoClock = nanoClock;
+        AppProperties.Guard guard = appProperties.getAi().getGuard();
+        this.limit = guard.getInitialLimit();
+        resetWindow(guard);
+        this.rejectedOpen = Counter.builder("scms.ai.guard.rejected").tag("reason", "open").register(meterRegistry);
+        this.rejectedLimit = Counter.builder("scms.ai.guard.rejected").tag("reason", "limit").register(meterRegistry);
+        Gauge.builder("scms.ai.guard.state", this, g -> g.state().ordinal()).register(meterRegistry);
+        Gauge.builder("scms.ai.guard.limit", this, GeminiGuard::limit).register(meterRegistry);
+        Gauge.builder("scms.ai.guard.in_flight", this, GeminiGuard::inFlight).register(meterRegistry);
+    }
+
+    /**
+     * Takes a permit for one call, waiting while the in-flight limit is reached. Throws
+     * {@link GeminiUnavailableException} when the breaker rejects the call, or {@link GeminiSaturatedException}
+     * when no permit frees up in time.
+     */
+    public Permit acquire() throws InterruptedException {
+        AppProperties.Guard guard = appProperties.getAi().getGuard();
+        if (!guard.isEnabled()) {
+            return new Permit(nanoClock.getAsLong(), false, true);
+        }
+        // Real time, not nanoClock: this bounds an actual wait on the monitor.
+        long waitDeadline = System.nanoTime() + appProperties.getAi().getTimeoutMs() * 1_000_000L;
+        boolean probe;
+        synchronized (this) {
+            while (true) {
+                if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= guard.getOpenDurationMs() * 1_000_000L) {
+                    transitionTo(State.HALF_OPEN, guard);
+                }
+                if (state == State.OPEN || (state == State.HALF_OPEN && halfOpenInFlight >= guard.getHalfOpenProbes())) {
+                    rejectedOpen.increment();
+                    throw new GeminiUnavailableException("Gemini circuit breaker is open");
+                }
+                if (inFlight < (int) limit) {
+                    break;
+                }
+                long remainingNanos = waitDeadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    rejectedLimit.increment();
+                    throw new GeminiSaturatedException("Gemini concurrency limit reached (" + (int) limit + ")");
+                }
+                // Woken by onComplete when a call finishes.
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            }
+            probe = state == State.HALF_OPEN;
+            if (probe) {
+                halfOpenInFlight++;
+            }
+            inFlight++;
+        }
+        return new Permit(nanoClock.getAsLong(), probe, false);
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized double limit() {
+        return limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private synchronized void onComplete(Permit permit, boolean failed) {
+        AppProperties.Guard guard = appProperties.getAi().getGuard();
+        inFlight--;
+        notifyAll();
+        boolean slow = nanoClock.getAsLong() - permit.startedAtNanos >= guard.getSlowCallMs() * 1_000_000L;
+
+        if (failed || slow) {
+            limit = Math.max(guard.getMinLimit(), limit * guard.getBackoffRatio());
+        } else {
+            limit = Math.min(guard.getMaxLimit(), limit + 1.0 / limit);
+        }
+
+        if (permit.probe) {
+            halfOpenInFlight--;
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (failed || slow) {
+                transitionTo(State.OPEN, guard);
+            } else if (++halfOpenSuccesses >= guard.getHalfOpenProbes()) {
+                transitionTo(State.CLOSED, guard);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+        failures[windowIndex] = failed;
+        slowCalls[windowIndex] = slow;
+        windowIndex = (windowIndex + 1) % failures.length;
+        windowCount = Math.min(windowCount + 1, failures.length);
+        if (windowCount >= Math.min(guard.getMinimumCalls(), failures.length)) {
+            int failedCalls = 0;
+            int slowCallCount = 0;
+            for (int i = 0; i < windowCount; i++) {
+                failedCalls += failures[i] ? 1 : 0;
+                slowCallCount += slowCalls[i] ? 1 : 0;
+            }
+            if ((double) failedCalls / windowCount >= guard.getFailureRateThreshold()
+                || (double) slowCallCount / windowCount >= guard.getSlowCallRateThreshold()) {
+                transitionTo(State.OPEN, guard);
+            }
+        }
+    }
+
+    private void transitionTo(State next, AppProperties.Guard guard) {
+        log.warn("Gemini circuit breaker {} -> {}", state, next);
+        state = next;
+        halfOpenSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+        } else if (next == State.CLOSED) {
+            resetWindow(guard);
+        }
+    }
+
+    private void resetWindow(AppProperties.Guard guard) {
+        failures = new boolean[guard.getWindowSize()];
+        slowCalls = new boolean[guard.getWindowSize()];
+        windowCount = 0;
+        windowIndex = 0;
+    }
+
+    public final class Permit {
+        private final long startedAtNanos;
+        private final boolean probe;
+        private final boolean untracked;
+        private boolean released;
+
+        private Permit(long startedAtNanos, boolean probe, boolean untracked) {
+            this.startedAtNanos = startedAtNanos;
+            this.probe = probe;
+            this.untracked = untracked;
+        }
+
+        public void release(boolean failed) {
+            if (released || untracked) {
+                return;
+            }
+            released = true;
+            onComplete(this, failed);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.codex.scms.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * generateContent request body that is written as a stream. Inline images are kept as raw bytes and
+ * base64-encoded chunk by chunk while the request is sent, instead of being materialized as Base64
+ * strings inside a Jackson tree.
+ */
+public final class GeminiRequestBody {
+
+    // Multiple of 3 so chunk encodings concatenate into one valid base64 string without inner padding.
+    private static final int RAW_CHUNK_BYTES = 48 * 1024;
+    private static final byte[] CLOSING = utf8("]}]}");
+
+    private final ObjectMapper objectMapper;
+    private final List<Object> segments = new ArrayList<>();
+    private int partCount;
+
+    public GeminiRequestBody(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        segments.add(utf8("{\"contents\":[{\"parts\":["));
+    }
+
+    public GeminiRequestBody addText(String text) {
+        separator();
+        segments.add(utf8("{\"text\":" + json(text) + "}"));
+        return this;
+    }
+
+    public GeminiRequestBody addFileData(String mimeType, String fileUri) {
+        separator();
+        segments.add(utf8("{\"file_data\":{\"mime_type\":" + json(mimeType) + ",\"file_uri\":" + json(fileUri) + "}}"));
+        return this;
+    }
+
+    public GeminiRequestBody addInlineData(String mimeType, ByteBuffer data) {
+        separator();
+        segments.add(utf8("{\"inline_data\":{\"mime_type\":" + json(mimeType) + ",\"data\":\""));
+        segments.add(data.asReadOnlyBuffer());
+        segments.add(utf8("\"}}"));
+        return this;
+    }
+
+    public long contentLength() {
+        long length = CLOSING.length;
+        for (Object segment : segments) {
+            if (segment instanceof byte[] bytes) {
+                length += bytes.length;
+            } else {
+                length += 4L * ((((ByteBuffer) segment).remaining() + 2) / 3);
+            }
+        }
+        return length;
+    }
+
+    public HttpRequest.BodyPublisher publisher() {
+        return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofByteArrays(this::chunks), contentLength());
+    }
+
+    private Iterator<byte[]> chunks() {
+        return new Iterator<>() {
+            private int index;
+            private ByteBuffer current;
+            private boolean closed;
+
+            @Override
+            public boolean hasNext() {
+                return !closed;
+            }
+
+            @Override
+            public byte[] next() {
+                if (current != null && current.hasRemaining()) {
+                    return encodeNextChunk();
+                }
+                current = null;
+                if (index < segments.size()) {
+                    Object segment = segments.get(index++);
+                    if (segment instanceof byte[] bytes) {
+                        return bytes;
+                    }
+                    current = ((ByteBuffer) segment).duplicate();
+                    return current.hasRemaining() ? encodeNextChunk() : new byte[0];
+                }
+                if (closed) {
+                    throw new NoSuchElementException();
+                }
+                closed = true;
+                return CLOSING;
+            }
+
+            private byte[] encodeNextChunk() {
+                int length = Math.min(RAW_CHUNK_BYTES, current.remaining());
+                ByteBuffer slice = current.slice();
+                slice.limit(length);
+                current.position(current.position() + length);
+                ByteBuffer encoded = Base64.getEncoder().encode(slice);
+                return encoded.array();
+            }
+        };
+    }
+
+    private void separator() {
+        if (partCount++ > 0) {
+            segments.add(utf8(","));
+        }
+    }
+
+    private String json(String value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot encode Gemini request text", ex);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,9 @@
+package com.codex.scms.ai;
+
+/** Thrown when no Gemini permit frees up in time; the complaint is left for a later retry instead of a fallback. */
+public class GeminiSaturatedException extends GeminiUnavailableException {
+
+    public GeminiSaturatedException(String message) {
+        super(message);
+    }
+}
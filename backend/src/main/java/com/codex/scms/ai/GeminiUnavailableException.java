@@ -0,0 +1,9 @@
+package com.codex.scms.ai;
+
+/** Thrown without calling Gemini when the circuit breaker is open or no permit frees up in time. */
+public class GeminiUnavailableException extends IllegalStateException {
+
+    public GeminiUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,214 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.enums.ComplaintSeverity;
+import com.codex.scms.repository.ComplaintRepository;
+import com.codex.scms.repository.ComplaintTrainingRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-process naive Bayes classifier for department and severity, trained on complaints whose labels came
+ * from Gemini or from an admin assignment. Predictions made by this model are never trained on. Used when
+ * Gemini is unavailable and, optionally, as a first-pass router in front of it.
+ * <p>
+ * Training is incremental over settled complaints by creation time. Counts cannot be taken back, so when an
+ * admin relabels a complaint that was already learned the model is rebuilt from all complaints instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalComplaintClassifier {
+
+    private static final int TRAINING_PAGE_SIZE = 500;
+    private static final Set<String> STOP_WORDS = Set.of(
+        "the", "and", "is", "in", "of", "to", "a", "an", "on", "at", "for", "are", "was", "with",
+        "my", "our", "we", "this", "that", "there", "from", "not", "be", "has", "have", "been", "by", "or"
+    );
+
+    private final ComplaintRepository complaintRepository;
+    private final AppProperties appProperties;
+    private final ObjectMapper objectMapper;
+
+    private volatile ModelState model = ModelState.empty();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadModel() {
+        if (!appProperties.getAi().getLocalModel().isEnabled()) {
+            return;
+        }
+        Path path = modelPath();
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try {
+            model = objectMapper.readValue(path.toFile(), ModelState.class);
+            log.info("Loaded local classifier model from {} ({} samples, trained through {})",
+                path, model.departments().documents(), model.trainedThrough());
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable local classifier model {}: {}", path, ex.getMessage());
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.ai.local-model.retrain-interval-ms:3600000}",
+        fixedDelayString = "${app.ai.local-model.retrain-interval-ms:3600000}"
+    )
+    public void retrain() {
+        AppProperties.LocalModel config = appProperties.getAi().getLocalModel();
+        if (!config.isEnabled()) {
+            return;
+        }
+        ModelState current = model;
+        Instant until = Instant.now().minusMillis(config.getSettleAgeMs());
+        if (!until.isAfter(current.trainedThrough())) {
+            return;
+        }
+        boolean rebuild = current.trainedThrough().isAfter(Instant.EPOCH)
+            && complaintRepository.existsLabelCorrections(current.trainedThrough(), until);
+        Instant after = rebuild ? Instant.EPOCH : current.trainedThrough();
+        NaiveBayesModel departments = rebuild ? new NaiveBayesModel() : current.departments().copy();
+        NaiveBayesModel severities = rebuild ? new NaiveBayesModel() : current.severities().copy();
+        int added = 0;
+        for (int page = 0; ; page++) {
+            List<ComplaintTrainingRow> rows = complaintRepository.findTrainingRows(
+                after, until, PageRequest.of(page, TRAINING_PAGE_SIZE));
+            for (ComplaintTrainingRow row : rows) {
+                added += learn(row, departments, severities) ? 1 : 0;
+            }
+            if (rows.size() < TRAINING_PAGE_SIZE) {
+                break;
+            }
+        }
+        model = new ModelState(until, departments, severities);
+        if (rebuild) {
+            log.info("Local classifier rebuilt after admin relabelling ({} complaints)", added);
+            save(model);
+        } else if (added > 0) {
+            log.info("Local classifier trained on {} new complaints ({} total)", added, departments.documents());
+            save(model);
+        }
+    }
+
+    /** Predicts from title, description and area; empty when disabled or not trained on enough complaints. */
+    public Optional<LocalPrediction> predict(String title, String description, String area) {
+        AppProperties.LocalModel config = appProperties.getAi().getLocalModel();
+        ModelState current = model;
+        if (!config.isEnabled() || current.severities().documents() < config.getMinSamples()) {
+            return Optional.empty();
+        }
+        List<String> tokens = tokens(title, description, area);
+        Optional<NaiveBayesModel.Prediction> severity = current.severities().predict(tokens);
+        if (severity.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<NaiveBayesModel.Prediction> department = current.departments().documents() >= config.getMinSamples()
+            ? current.departments().predict(tokens)
+            : Optional.empty();
+        return Optional.of(new LocalPrediction(
+            ComplaintSeverity.valueOf(severity.get().label()),
+            severity.get().confidence(),
+            department.map(p -> UUID.fromString(p.label())).orElse(null),
+            department.map(NaiveBayesModel.Prediction::confidence).orElse(0.0)
+        ));
+    }
+
+    boolean learn(ComplaintTrainingRow row, NaiveBayesModel departments, NaiveBayesModel severities) {
+        // Fallback and locally routed results carry no raw AI response and no admin decision: skip them.
+        UUID departmentLabel = row.adminAssigned() ? row.assignedDepartmentId()
+            : row.aiLabelled() ? row.aiDepartmentId() : null;
+        boolean severityLabelled = row.aiLabelled() && row.aiSeverity() != null;
+        if (departmentLabel == null && !severityLabelled) {
+            return false;
+        }
+        List<String> tokens = tokens(row.title(), row.description(), row.area());
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        if (departmentLabel != null) {
+            departments.add(departmentLabel.toString(), tokens);
+        }
+        if (severityLabelled) {
+            severities.add(row.aiSeverity().name(), tokens);
+        }
+        return true;
+    }
+
+    static List<String> tokens(String title, String description, String area) {
+        List<String> tokens = new ArrayList<>();
+        // Titles are short and carry most of the signal, so they count twice.
+        addTokens(tokens, title, "");
+        addTokens(tokens, title, "");
+        addTokens(tokens, description, "");
+        addTokens(tokens, area, "area:");
+        return tokens;
+    }
+
+    private static void addTokens(List<String> out, String text, String prefix) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                token.append(c);
+                continue;
+            }
+            if (token.length() > 1 && !STOP_WORDS.contains(token.toString())) {
+                out.add(prefix + token);
+            }
+            token.setLength(0);
+        }
+    }
+
+    private void save(ModelState state) {
+        Path path = modelPath();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = Files.createTempFile(parent, "ai-local-model", ".tmp");
+            objectMapper.writeValue(temp.toFile(), state);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not save local classifier model to {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private Path modelPath() {
+        return Paths.get(appProperties.getAi().getLocalModel().getPath());
+    }
+
+    public record LocalPrediction(
+        ComplaintSeverity severity,
+        double severityConfidence,
+        UUID departmentId,
+        double departmentConfidence
+    ) {}
+
+    record ModelState(Instant trainedThrough, NaiveBayesModel departments, NaiveBayesModel severities) {
+        static ModelState empty() {
+            return new ModelState(Instant.EPOCH, new NaiveBayesModel(), new NaiveBayesModel());
+        }
+    }
+}
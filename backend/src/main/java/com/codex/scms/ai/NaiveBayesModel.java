@@ -0,0 +1,101 @@
+package com.codex.scms.ai;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Multinomial naive Bayes over token counts with Laplace smoothing. Training only adds counts, so the
+ * model can be updated incrementally; it is serialized as plain maps.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class NaiveBayesModel {
+
+    private Map<String, Long> documentCounts = new HashMap<>();
+    private Map<String, Long> tokenTotals = new HashMap<>();
+    private Map<String, Map<String, Long>> tokenCounts = new HashMap<>();
+
+    @JsonIgnore
+    private volatile Set<String> vocabulary;
+
+    public void add(String label, List<String> tokens) {
+        documentCounts.merge(label, 1L, Long::sum);
+        tokenTotals.merge(label, (long) tokens.size(), Long::sum);
+        Map<String, Long> counts = tokenCounts.computeIfAbsent(label, ignored -> new HashMap<>());
+        for (String token : tokens) {
+            counts.merge(token, 1L, Long::sum);
+        }
+        vocabulary = null;
+    }
+
+    public long documents() {
+        long total = 0;
+        for (long count : documentCounts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /** Most probable label and its posterior probability, or empty when nothing has been learned. */
+    public Optional<Prediction> predict(List<String> tokens) {
+        long documents = documents();
+        if (documents == 0 || tokens.isEmpty()) {
+            return Optional.empty();
+        }
+        int vocabularySize = Math.max(1, vocabulary().size());
+
+        String bestLabel = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        Map<String, Double> scores = new HashMap<>(documentCounts.size() * 2);
+        for (Map.Entry<String, Long> label : documentCounts.entrySet()) {
+            Map<String, Long> counts = tokenCounts.getOrDefault(label.getKey(), Map.of());
+            double denominator = Math.log(tokenTotals.getOrDefault(label.getKey(), 0L) + vocabularySize);
+            double score = Math.log((double) label.getValue() / documents);
+            for (String token : tokens) {
+                score += Math.log(counts.getOrDefault(token, 0L) + 1) - denominator;
+            }
+            scores.put(label.getKey(), score);
+            if (score > bestScore) {
+                bestScore = score;
+                bestLabel = label.getKey();
+            }
+        }
+        double normalizer = 0;
+        for (double score : scores.values()) {
+            normalizer += Math.exp(score - bestScore);
+        }
+        return Optional.of(new Prediction(bestLabel, 1 / normalizer));
+    }
+
+    public NaiveBayesModel copy() {
+        NaiveBayesModel copy = new NaiveBayesModel();
+        copy.documentCounts.putAll(documentCounts);
+        copy.tokenTotals.putAll(tokenTotals);
+        tokenCounts.forEach((label, counts) -> copy.tokenCounts.put(label, new HashMap<>(counts)));
+        return copy;
+    }
+
+    private Set<String> vocabulary() {
+        Set<String> current = vocabulary;
+        if (current == null) {
+            current = new HashSet<>();
+            for (Map<String, Long> counts : tokenCounts.values()) {
+                current.addAll(counts.keySet());
+            }
+            vocabulary = current;
+        }
+        return current;
+    }
+
+    public record Prediction(String label, double confidence) {}
+}
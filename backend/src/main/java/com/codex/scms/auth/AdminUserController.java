@@ -0,0 +1,28 @@
+package com.codex.scms.auth;
+
+import com.codex.scms.common.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Tag(name = "Admin Users")
+public class AdminUserController {
+
+    private final AuthService authService;
+
+    @PostMapping("/{id}/revoke-tokens")
+    @Operation(summary = "Sign a user out of every session")
+    public ApiResponse<Object> revokeTokens(@PathVariable UUID id) {
+        authService.revokeTokens(id);
+        return ApiResponse.ok("Tokens revoked", null);
+    }
+}
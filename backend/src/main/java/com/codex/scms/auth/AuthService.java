@@ -2,9 +2,11 @@ package com.codex.scms.auth;
 
 import com.codex.scms.common.AppException;
 import com.codex.scms.domain.entity.User;
+import com.codex.scms.domain.enums.TokenRevocationReason;
 import com.codex.scms.repository.UserRepository;
 import com.codex.scms.security.AuthenticatedUser;
 import com.codex.scms.security.JwtService;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +16,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -50,6 +56,22 @@ public class AuthService {
         return new AuthDtos.AuthResponse(jwtService.generateAccessToken(principal), toUserResponse(user));
     }
 
+    public void logout(String token) {
+        try {
+            jwtService.revoke(token, TokenRevocationReason.LOGOUT);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new AppException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+    }
+
+    /** Invalidates every access token the user holds; tokens issued within the current second are cut off too. */
+    @Transactional
+    public void revokeTokens(UUID userId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "User not found"));
+        user.setTokensValidAfter(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
     public AuthDtos.AuthUserResponse me(AuthenticatedUser user) {
         User entity = userRepository.findById(user.getId())
             .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "User not found"));
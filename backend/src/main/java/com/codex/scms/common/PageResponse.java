@@ -4,7 +4,20 @@ import org.springframework.data.domain.Page;
 
 import java.util.List;
 
-public record PageResponse<T>(List<T> items, long totalElements, int totalPages, int page, int size, boolean first, boolean last) {
+/**
+ * Page of results. Offset pages fill every field; cursor pages carry {@code nextCursor} (null on the last
+ * page) and report -1 totals unless a count was requested.
+ */
+public record PageResponse<T>(
+    List<T> items,
+    long totalElements,
+    int totalPages,
+    int page,
+    int size,
+    boolean first,
+    boolean last,
+    String nextCursor
+) {
 
     public static <T> PageResponse<T> from(Page<T> page) {
         return new PageResponse<>(
@@ -14,7 +27,14 @@ public record PageResponse<T>(List<T> items, long totalElements, int totalPages,
             page.getNumber(),
             page.getSize(),
             page.isFirst(),
-            page.isLast()
+            page.isLast(),
+            null
         );
     }
+
+    public static <T> PageResponse<T> fromCursor(List<T> items, int size, boolean first, String nextCursor, Long totalElements) {
+        long total = totalElements == null ? -1 : totalElements;
+        int totalPages = totalElements == null ? -1 : (int) ((total + size - 1) / size);
+        return new PageResponse<>(items, total, totalPages, 0, size, first, nextCursor == null, nextCursor);
+    }
 }
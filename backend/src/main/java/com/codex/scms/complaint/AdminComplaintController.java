@@ -3,6 +3,7 @@ package com.codex.scms.complaint;
 import com.codex.scms.common.ApiResponse;
 import com.codex.scms.common.PageResponse;
 import com.codex.scms.domain.enums.ComplaintSeverity;
+import com.codex.scms.domain.enums.ComplaintSortOrder;
 import com.codex.scms.domain.enums.ComplaintStatus;
 import com.codex.scms.security.AuthenticatedUser;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -38,19 +39,46 @@ public class AdminComplaintController {
         @RequestParam(required = false) String search,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+        @RequestParam(defaultValue = "NEWEST") ComplaintSortOrder sort,
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "10") int size
     ) {
         return ApiResponse.ok(PageResponse.from(
-            complaintService.listAdminComplaints(status, severity, fromDate, toDate, departmentId, search, page, size)
+            complaintService.listAdminComplaints(status, severity, fromDate, toDate, departmentId, search, sort, page, size)
         ));
     }
 
+    @GetMapping("/complaints/scroll")
+    public ApiResponse<PageResponse<ComplaintDtos.ComplaintListItemResponse>> scrollComplaints(
+        @RequestParam(required = false) ComplaintStatus status,
+        @RequestParam(required = false) ComplaintSeverity severity,
+        @RequestParam(required = false) UUID departmentId,
+        @RequestParam(required = false) String search,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        return ApiResponse.ok(
+            complaintService.scrollAdminComplaints(status, severity, fromDate, toDate, departmentId, search, cursor, size, includeTotal)
+        );
+    }
+
     @GetMapping("/complaints/{id}")
     public ApiResponse<ComplaintDtos.ComplaintResponse> getComplaint(@PathVariable UUID id) {
         return ApiResponse.ok(complaintService.getAdminComplaint(id));
     }
 
+    @GetMapping("/complaints/{id}/events")
+    public ApiResponse<PageResponse<ComplaintDtos.ComplaintEventResponse>> listEvents(
+        @PathVariable UUID id,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ApiResponse.ok(complaintService.listComplaintEvents(id, cursor, size));
+    }
+
     @PostMapping("/complaints/{id}/assign-department")
     public ApiResponse<ComplaintDtos.ComplaintResponse> assignDepartment(
         @AuthenticationPrincipal AuthenticatedUser admin,
@@ -0,0 +1,118 @@
+package com.codex.scms.complaint;
+
+import com.codex.scms.ai.AiClassificationBatcher;
+import com.codex.scms.ai.AiClassificationService;
+import com.codex.scms.ai.GeminiSaturatedException;
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classifies, routes and notifies for newly submitted complaints on a bounded worker pool, so the
+ * Gemini round trip never holds a request thread or a database connection.
+ */
+@Slf4j
+@Component
+public class ComplaintClassificationPipeline {
+
+    private final ComplaintService complaintService;
+    private final AiClassificationBatcher aiClassificationBatcher;
+    private final AppProperties appProperties;
+    private final TaskExecutor executor;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ComplaintClassificationPipeline(
+        ComplaintService complaintService,
+        AiClassificationBatcher aiClassificationBatcher,
+        AppProperties appProperties,
+        @Qualifier(AsyncConfig.CLASSIFICATION_EXECUTOR) TaskExecutor executor
+    ) {
+        this.complaintService = complaintService;
+        this.aiClassificationBatcher = aiClassificationBatcher;
+        this.appProperties = appProperties;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onComplaintSubmitted(ComplaintSubmittedEvent event) {
+        submit(event.complaintId());
+    }
+
+    public boolean submit(UUID complaintId) {
+        if (!inFlight.add(complaintId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> process(complaintId));
+            return true;
+        } catch (TaskRejectedException ex) {
+            inFlight.remove(complaintId);
+            log.warn("Classification queue is full; complaint {} stays NEW until the recovery sweep", complaintId);
+            return false;
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.ai.pipeline.recovery-age-ms:120000}",
+        fixedDelayString = "${app.ai.pipeline.recovery-age-ms:120000}"
+    )
+    public void requeueUnclassifiedComplaints() {
+        AppProperties.Pipeline pipeline = appProperties.getAi().getPipeline();
+        Instant cutoff = Instant.now().minusMillis(pipeline.getRecoveryAgeMs());
+        List<UUID> stale = complaintService.findUnclassifiedComplaintIds(cutoff, pipeline.getQueueCapacity());
+        int queued = 0;
+        for (UUID complaintId : stale) {
+            if (submit(complaintId)) {
+                queued++;
+            }
+        }
+        if (queued > 0) {
+            log.info("Re-queued {} complaints still awaiting classification", queued);
+        }
+    }
+
+    private void process(UUID complaintId) {
+        try {
+            Optional<AiClassificationService.AiClassificationRequest> request = complaintService.loadPendingClassification(complaintId);
+            if (request.isEmpty()) {
+                inFlight.remove(complaintId);
+                return;
+            }
+            aiClassificationBatcher.classify(request.get())
+                .thenAcceptAsync(result -> complaintService.applyClassification(complaintId, result), executor)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        logFailure(complaintId, ex);
+                    }
+                    inFlight.remove(complaintId);
+                });
+        } catch (Exception ex) {
+            logFailure(complaintId, ex);
+            inFlight.remove(complaintId);
+        }
+    }
+
+    private static void logFailure(UUID complaintId, Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof GeminiSaturatedException) {
+                log.warn("No Gemini capacity for complaint {}; it stays NEW until the recovery sweep", complaintId);
+                return;
+            }
+        }
+        log.error("Classification pipeline failed for complaint {}", complaintId, ex);
+    }
+}
@@ -0,0 +1,42 @@
+package com.codex.scms.complaint;
+
+import com.codex.scms.common.AppException;
+import com.codex.scms.domain.entity.ComplaintEvent;
+import com.codex.scms.repository.ComplaintListRow;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/** Position in a newest-first listing of complaints or of a complaint's events, handed to clients as an opaque token. */
+record ComplaintCursor(Instant createdAt, UUID id) {
+
+    static ComplaintCursor after(ComplaintListRow row) {
+        return new ComplaintCursor(row.createdAt(), row.id());
+    }
+
+    static ComplaintCursor after(ComplaintEvent event) {
+        return new ComplaintCursor(event.getCreatedAt(), event.getId());
+    }
+
+    String encode() {
+        byte[] raw = (createdAt + "|" + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    static ComplaintCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            return new ComplaintCursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new AppException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
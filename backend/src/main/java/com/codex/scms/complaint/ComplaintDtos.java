@@ -12,6 +12,7 @@ import jakarta.validation.constraints.Size;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public final class ComplaintDtos {
@@ -101,7 +102,8 @@ public final class ComplaintDtos {
         boolean overdue,
         String aiRawResponseJson,
         List<ComplaintImageResponse> images,
-        List<ComplaintEventResponse> timeline
+        List<ComplaintEventResponse> timeline,
+        String timelineCursor
     ) {}
 
     public record ComplaintListItemResponse(
@@ -120,5 +122,14 @@ public final class ComplaintDtos {
     ) {}
 
     public record StudentDashboardKpis(long total, long pending, long assigned, long resolved, long overdue) {}
-    public record AdminDashboardKpis(long total, long newCount, long pendingAssignment, long overdue, long closed) {}
+    public record AdminDashboardKpis(
+        long total,
+        long newCount,
+        long pendingAssignment,
+        long overdue,
+        long closed,
+        Map<ComplaintStatus, Long> byStatus,
+        Map<ComplaintSeverity, Long> bySeverity,
+        Map<UUID, Long> byDepartment
+    ) {}
 }
@@ -0,0 +1,4 @@
+package com.codex.scms.complaint;
+
+/** A complaint moved between KPI buckets; {@code before} is null for a new complaint. */
+public record ComplaintKpiChangedEvent(ComplaintKpiStore.Bucket before, ComplaintKpiStore.Bucket after) {}
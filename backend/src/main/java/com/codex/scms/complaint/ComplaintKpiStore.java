@@ -0,0 +1,166 @@
+package com.codex.scms.complaint;
+
+import com.codex.scms.domain.enums.ComplaintSeverity;
+import com.codex.scms.domain.enums.ComplaintStatus;
+import com.codex.scms.repository.ComplaintKpiBucket;
+import com.codex.scms.repository.ComplaintRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process dashboard counters by status, severity and assigned department. Transitions are applied once
+ * their transaction commits, so reads never touch the database. A periodic reconciliation corrects drift
+ * from concurrent commits or lost events and refreshes the overdue count, which depends on the clock.
+ */
+@Slf4j
+@Component
+public class ComplaintKpiStore {
+
+    private final ComplaintRepository complaintRepository;
+    private final Counter corrections;
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    private final LongAdder total = new LongAdder();
+    private final Map<ComplaintStatus, LongAdder> byStatus = adders(ComplaintStatus.class);
+    private final Map<ComplaintSeverity, LongAdder> bySeverity = adders(ComplaintSeverity.class);
+    private final ConcurrentMap<UUID, LongAdder> byDepartment = new ConcurrentHashMap<>();
+    private volatile long overdue;
+    private volatile boolean loaded;
+
+    public ComplaintKpiStore(ComplaintRepository complaintRepository, MeterRegistry meterRegistry) {
+        this.complaintRepository = complaintRepository;
+        this.corrections = Counter.builder("scms.kpi.reconcile.corrections")
+            .description("Sum of absolute counter corrections made by reconciliation")
+            .register(meterRegistry);
+        Gauge.builder("scms.kpi.reconcile.drift", lastDrift, AtomicLong::get)
+            .description("Absolute counter drift found by the last reconciliation")
+            .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onKpiChanged(ComplaintKpiChangedEvent event) {
+        apply(event.before(), -1);
+        apply(event.after(), 1);
+    }
+
+    @Scheduled(fixedDelayString = "${app.kpi.reconcile-interval-ms:60000}")
+    public synchronized void reconcile() {
+        List<ComplaintKpiBucket> buckets = complaintRepository.countKpiBuckets(Instant.now());
+        long expectedTotal = 0;
+        long expectedOverdue = 0;
+        Map<ComplaintStatus, Long> statusCounts = new EnumMap<>(ComplaintStatus.class);
+        Map<ComplaintSeverity, Long> severityCounts = new EnumMap<>(ComplaintSeverity.class);
+        Map<UUID, Long> departmentCounts = new HashMap<>();
+        for (ComplaintKpiBucket bucket : buckets) {
+            expectedTotal += bucket.count();
+            expectedOverdue += bucket.overdue();
+            statusCounts.merge(bucket.status(), bucket.count(), Long::sum);
+            severityCounts.merge(bucket.severity(), bucket.count(), Long::sum);
+            if (bucket.departmentId() != null) {
+                departmentCounts.merge(bucket.departmentId(), bucket.count(), Long::sum);
+            }
+        }
+        Set<UUID> departments = new HashSet<>(departmentCounts.keySet());
+        departments.addAll(byDepartment.keySet());
+
+        long drift = correct(total, expectedTotal);
+        for (ComplaintStatus status : ComplaintStatus.values()) {
+            drift += correct(byStatus.get(status), statusCounts.getOrDefault(status, 0L));
+        }
+        for (ComplaintSeverity severity : ComplaintSeverity.values()) {
+            drift += correct(bySeverity.get(severity), severityCounts.getOrDefault(severity, 0L));
+        }
+        for (UUID departmentId : departments) {
+            drift += correct(byDepartment.computeIfAbsent(departmentId, ignored -> new LongAdder()),
+                departmentCounts.getOrDefault(departmentId, 0L));
+        }
+        overdue = expectedOverdue;
+        // The first pass is the initial load, not drift.
+        if (loaded) {
+            lastDrift.set(drift);
+            corrections.increment(drift);
+            if (drift > 0) {
+                log.info("KPI reconciliation corrected a drift of {}", drift);
+            }
+        }
+        loaded = true;
+    }
+
+    /** Current counters; reconciles first if nothing has been loaded yet. */
+    public Snapshot snapshot() {
+        if (!loaded) {
+            reconcile();
+        }
+        return new Snapshot(total.sum(), sums(byStatus), sums(bySeverity), sums(byDepartment), overdue);
+    }
+
+    private void apply(Bucket bucket, int delta) {
+        if (bucket == null) {
+            return;
+        }
+        total.add(delta);
+        byStatus.get(bucket.status()).add(delta);
+        bySeverity.get(bucket.severity()).add(delta);
+        if (bucket.departmentId() != null) {
+            byDepartment.computeIfAbsent(bucket.departmentId(), ignored -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static long correct(LongAdder adder, long expected) {
+        long difference = expected - adder.sum();
+        adder.add(difference);
+        return Math.abs(difference);
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> adders(Class<E> type) {
+        Map<E, LongAdder> adders = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            adders.put(value, new LongAdder());
+        }
+        return adders;
+    }
+
+    private static <K> Map<K, Long> sums(Map<K, LongAdder> adders) {
+        Map<K, Long> sums = new HashMap<>();
+        adders.forEach((key, adder) -> {
+            long sum = adder.sum();
+            if (sum != 0) {
+                sums.put(key, sum);
+            }
+        });
+        return sums;
+    }
+
+    public record Bucket(ComplaintStatus status, ComplaintSeverity severity, UUID departmentId) {}
+
+    public record Snapshot(
+        long total,
+        Map<ComplaintStatus, Long> byStatus,
+        Map<ComplaintSeverity, Long> bySeverity,
+        Map<UUID, Long> byDepartment,
+        long overdue
+    ) {
+        public long count(ComplaintStatus status) {
+            return byStatus.getOrDefault(status, 0L);
+        }
+    }
+}
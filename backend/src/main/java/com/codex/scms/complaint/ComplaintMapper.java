@@ -5,14 +5,18 @@ import com.codex.scms.domain.entity.ComplaintEvent;
 import com.codex.scms.domain.entity.ComplaintImage;
 import com.codex.scms.domain.entity.Department;
 import com.codex.scms.domain.entity.User;
+import com.codex.scms.domain.enums.ComplaintStatus;
+import com.codex.scms.repository.ComplaintListRow;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.List;
 
 @Component
 public class ComplaintMapper {
 
-    public ComplaintDtos.ComplaintResponse toDetail(Complaint complaint) {
+    /** {@code timeline} holds the latest events in chronological order; older ones are paged from {@code timelineCursor}. */
+    public ComplaintDtos.ComplaintResponse toDetail(Complaint complaint, List<ComplaintEvent> timeline, String timelineCursor) {
         return new ComplaintDtos.ComplaintResponse(
             complaint.getId(),
             referenceId(complaint),
@@ -36,35 +40,41 @@ public class ComplaintMapper {
             isOverdue(complaint),
             complaint.getAiRawResponseJson(),
             complaint.getImages().stream().map(this::imageResponse).toList(),
-            complaint.getEvents().stream().map(this::eventResponse).toList()
+            timeline.stream().map(this::toEvent).toList(),
+            timelineCursor
         );
     }
 
-    public ComplaintDtos.ComplaintListItemResponse toListItem(Complaint complaint) {
+    public ComplaintDtos.ComplaintListItemResponse toListItem(ComplaintListRow row) {
         return new ComplaintDtos.ComplaintListItemResponse(
-            complaint.getId(),
-            referenceId(complaint),
-            complaint.getTitle(),
-            complaint.getArea(),
-            complaint.getComplaintDate(),
-            complaint.getAiSeverity(),
-            complaint.getStatus(),
-            isOverdue(complaint),
-            departmentSummary(complaint.getAssignedDepartment()),
-            complaint.getSlaDueAt(),
-            complaint.getCreatedAt(),
-            userSummary(complaint.getStudent())
+            row.id(),
+            "CMP-" + row.id(),
+            row.title(),
+            row.area(),
+            row.complaintDate(),
+            row.aiSeverity(),
+            row.status(),
+            isOverdue(row.status(), row.ackReceivedAt(), row.slaDueAt()),
+            row.departmentId() == null ? null
+                : new ComplaintDtos.DepartmentSummary(row.departmentId(), row.departmentName(), row.departmentEmail()),
+            row.slaDueAt(),
+            row.createdAt(),
+            new ComplaintDtos.UserSummary(row.studentId(), row.studentName(), row.studentEmail())
         );
     }
 
     public boolean isOverdue(Complaint complaint) {
-        return complaint.getStatus() == com.codex.scms.domain.enums.ComplaintStatus.EMAIL_SENT
-            && complaint.getAckReceivedAt() == null
-            && complaint.getSlaDueAt() != null
-            && complaint.getSlaDueAt().isBefore(Instant.now());
+        return isOverdue(complaint.getStatus(), complaint.getAckReceivedAt(), complaint.getSlaDueAt());
+    }
+
+    private boolean isOverdue(ComplaintStatus status, Instant ackReceivedAt, Instant slaDueAt) {
+        return status == ComplaintStatus.EMAIL_SENT
+            && ackReceivedAt == null
+            && slaDueAt != null
+            && slaDueAt.isBefore(Instant.now());
     }
 
-    private ComplaintDtos.ComplaintEventResponse eventResponse(ComplaintEvent event) {
+    public ComplaintDtos.ComplaintEventResponse toEvent(ComplaintEvent event) {
         return new ComplaintDtos.ComplaintEventResponse(
             event.getId(),
             event.getEventType(),
@@ -2,42 +2,54 @@ package com.codex.scms.complaint;
 
 import com.codex.scms.ai.AiClassificationService;
 import com.codex.scms.common.AppException;
+import com.codex.scms.common.PageResponse;
 import com.codex.scms.domain.entity.Complaint;
 import com.codex.scms.domain.entity.ComplaintEvent;
 import com.codex.scms.domain.entity.ComplaintImage;
 import com.codex.scms.domain.entity.Department;
+import com.codex.scms.domain.entity.EmailOutboxMessage;
 import com.codex.scms.domain.entity.User;
 import com.codex.scms.domain.enums.ComplaintEventType;
 import com.codex.scms.domain.enums.ComplaintSeverity;
+import com.codex.scms.domain.enums.ComplaintSortOrder;
 import com.codex.scms.domain.enums.ComplaintStatus;
+import com.codex.scms.domain.enums.EmailOutboxStatus;
 import com.codex.scms.domain.enums.EventActorType;
+import com.codex.scms.domain.enums.TokenRevocationReason;
 import com.codex.scms.domain.enums.UserRole;
 import com.codex.scms.email.DepartmentMailService;
 import com.codex.scms.repository.ComplaintEventRepository;
+import com.codex.scms.repository.ComplaintKpiCounts;
+import com.codex.scms.repository.ComplaintListRow;
 import com.codex.scms.repository.ComplaintRepository;
 import com.codex.scms.repository.DepartmentRepository;
+import com.codex.scms.repository.EmailOutboxRepository;
 import com.codex.scms.repository.UserRepository;
 import com.codex.scms.security.AuthenticatedUser;
 import com.codex.scms.security.JwtService;
 import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.MailException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static org.springframework.data.jpa.domain.Specification.where;
 
@@ -47,15 +59,22 @@ import static org.springframework.data.jpa.domain.Specification.where;
 public class ComplaintService {
 
     private static final String OVERDUE_MARKER = "SLA overdue flagged by scheduler";
+    private static final int OVERDUE_FLAG_CHUNK_SIZE = 500;
+    private static final int OVERDUE_FLAG_PARTITIONS = 16;
+    private static final int STUDENT_SEARCH_LIMIT = 500;
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int DETAIL_TIMELINE_SIZE = 20;
 
     private final ComplaintRepository complaintRepository;
     private final ComplaintEventRepository complaintEventRepository;
     private final UserRepository userRepository;
     private final DepartmentRepository departmentRepository;
     private final ComplaintMapper complaintMapper;
-    private final AiClassificationService aiClassificationService;
     private final DepartmentMailService departmentMailService;
+    private final EmailOutboxRepository emailOutboxRepository;
     private final JwtService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ComplaintKpiStore complaintKpiStore;
 
     @Transactional
     public ComplaintDtos.ComplaintResponse createComplaint(AuthenticatedUser authUser, ComplaintDtos.CreateComplaintRequest request) {
@@ -83,24 +102,144 @@ public class ComplaintService {
         }
 
         addEvent(complaint, ComplaintEventType.STATUS_CHANGE, EventActorType.STUDENT, "Complaint created with status NEW");
-        complaint = complaintRepository.save(complaint);
+        Complaint saved = complaintRepository.save(complaint);
+        recordKpiChange(null, saved);
+
+        // Classification, routing and the department email run on the classification pipeline once this commits.
+        eventPublisher.publishEvent(new ComplaintSubmittedEvent(saved.getId()));
+        return detail(reloadDetailed(saved.getId()));
+    }
 
-        applyAiClassification(complaint);
+    @Transactional(readOnly = true)
+    public Optional<AiClassificationService.AiClassificationRequest> loadPendingClassification(UUID complaintId) {
+        Complaint complaint = complaintRepository.findById(complaintId).orElse(null);
+        if (complaint == null || complaint.getStatus() != ComplaintStatus.NEW) {
+            return Optional.empty();
+        }
+        List<String> imageUrls = complaint.getImages().stream().map(ComplaintImage::getImageUrl).toList();
+        return Optional.of(new AiClassificationService.AiClassificationRequest(
+            complaint.getId(),
+            complaint.getTitle(),
+            complaint.getDescription(),
+            complaint.getArea(),
+            complaint.getComplaintDate(),
+            imageUrls
+        ));
+    }
+
+    @Transactional
+    public boolean applyClassification(UUID complaintId, AiClassificationService.AiClassificationResult result) {
+        Complaint complaint = complaintRepository.findForUpdateById(complaintId).orElse(null);
+        if (complaint == null || complaint.getStatus() != ComplaintStatus.NEW) {
+            log.info("Skipping AI classification result for complaint {}: no longer awaiting classification", complaintId);
+            return false;
+        }
+
+        applyAiClassification(complaint, result);
 
         if (complaint.getAiDepartment() != null) {
             assignDepartmentInternal(complaint, complaint.getAiDepartment(), null, EventActorType.SYSTEM, "Auto-assigned by AI suggestion");
-            try {
-                sendDepartmentEmailAndStartSla(complaint, EventActorType.SYSTEM, false);
-            } catch (MailException ex) {
-                addEvent(complaint, ComplaintEventType.COMMENT, EventActorType.SYSTEM,
-                    "Department assigned automatically, but email send failed: " + ex.getMessage());
-            }
+            queueDepartmentEmail(complaint, EventActorType.SYSTEM, false);
         } else {
             changeStatus(complaint, ComplaintStatus.PENDING_ADMIN_ASSIGNMENT, EventActorType.SYSTEM, "Awaiting admin department assignment");
         }
 
-        Complaint saved = complaintRepository.save(complaint);
-        return complaintMapper.toDetail(reloadDetailed(saved.getId()));
+        complaintRepository.save(complaint);
+        return true;
+    }
+
+    /** Renders a queued department email, or returns empty when it no longer matches the complaint's assignment. */
+    @Transactional(readOnly = true)
+    public Optional<DepartmentMailService.OutgoingEmail> prepareDepartmentEmail(UUID complaintId, UUID departmentId) {
+        return complaintRepository.findWithDetailsById(complaintId)
+            .filter(c -> c.getAssignedDepartment() != null && c.getAssignedDepartment().getId().equals(departmentId))
+            .map(departmentMailService::prepareAssignmentEmail);
+    }
+
+    /** Renders one digest for the queued complaints still awaiting the department's email; empty if none are. */
+    @Transactional(readOnly = true)
+    public Optional<PreparedDigest> prepareDepartmentDigest(UUID departmentId, List<UUID> complaintIds) {
+        Department department = departmentRepository.findById(departmentId).orElse(null);
+        if (department == null) {
+            return Optional.empty();
+        }
+        List<Complaint> complaints = complaintIds.stream()
+            .map(complaintRepository::findWithDetailsById)
+            .flatMap(Optional::stream)
+            .filter(c -> awaitsDepartmentEmail(c, departmentId, ComplaintStatus.ASSIGNED_TO_DEPARTMENT, false))
+            .toList();
+        if (complaints.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new PreparedDigest(
+            departmentMailService.prepareDigestEmail(department, complaints),
+            complaints.stream().map(Complaint::getId).toList()
+        ));
+    }
+
+    @Transactional
+    public void recordDepartmentEmailSent(UUID outboxMessageId, Instant emailSentAt) {
+        EmailOutboxMessage message = emailOutboxRepository.findById(outboxMessageId).orElse(null);
+        if (message == null || message.getStatus() != EmailOutboxStatus.PENDING) {
+            return;
+        }
+        message.setStatus(EmailOutboxStatus.SENT);
+        message.setSentAt(emailSentAt);
+        message.setAttempts(message.getAttempts() + 1);
+        complaintRepository.findForUpdateById(message.getComplaintId()).ifPresent(complaint -> {
+            boolean resend = message.isResend();
+            EventActorType actor = message.getRequestedBy();
+            // The complaint may have been acknowledged, closed or reassigned while the email was queued.
+            ComplaintStatus queuedStatus = message.getQueuedStatus() != null ? message.getQueuedStatus() : ComplaintStatus.ASSIGNED_TO_DEPARTMENT;
+            if (!awaitsDepartmentEmail(complaint, message.getDepartmentId(), queuedStatus, resend)) {
+                addEvent(complaint, ComplaintEventType.EMAIL_SENT, actor,
+                    (resend ? "Department email resent" : "Department email sent") + "; status left at " + complaint.getStatus());
+                complaintRepository.save(complaint);
+                return;
+            }
+            complaint.setEmailSentAt(emailSentAt);
+            complaint.setSlaDueAt(emailSentAt.plus(7, ChronoUnit.DAYS));
+            complaint.setAckReceivedAt(null);
+            changeStatus(complaint, ComplaintStatus.EMAIL_SENT, actor, resend ? "Department email resent" : "Department email sent and SLA started (7 days)");
+            addEvent(complaint, ComplaintEventType.EMAIL_SENT, actor,
+                (resend ? "Department email resent" : "Department email sent") + ", SLA due at " + complaint.getSlaDueAt());
+            complaintRepository.save(complaint);
+            eventPublisher.publishEvent(new SlaDeadlineChangedEvent(complaint.getId(), complaint.getSlaDueAt()));
+        });
+    }
+
+    /** Records a failed delivery; with no {@code retryAt} the message is given up and noted on the complaint. */
+    @Transactional
+    public void recordDepartmentEmailFailure(UUID outboxMessageId, String error, Instant retryAt) {
+        EmailOutboxMessage message = emailOutboxRepository.findById(outboxMessageId).orElse(null);
+        if (message == null || message.getStatus() != EmailOutboxStatus.PENDING) {
+            return;
+        }
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error);
+        if (retryAt != null) {
+            message.setNextAttemptAt(retryAt);
+            return;
+        }
+        message.setStatus(EmailOutboxStatus.FAILED);
+        complaintRepository.findForUpdateById(message.getComplaintId()).ifPresent(complaint -> {
+            addEvent(complaint, ComplaintEventType.COMMENT, EventActorType.SYSTEM,
+                "Department email could not be sent after " + attempts + " attempts: " + error);
+            complaintRepository.save(complaint);
+        });
+    }
+
+    @Transactional
+    public void cancelDepartmentEmail(UUID outboxMessageId) {
+        emailOutboxRepository.findById(outboxMessageId)
+            .filter(message -> message.getStatus() == EmailOutboxStatus.PENDING)
+            .ifPresent(message -> message.setStatus(EmailOutboxStatus.CANCELLED));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> findUnclassifiedComplaintIds(Instant createdBefore, int limit) {
+        return complaintRepository.findIdsByStatusAndCreatedAtBefore(ComplaintStatus.NEW, createdBefore, PageRequest.of(0, limit));
     }
 
     @Transactional(readOnly = true)
@@ -121,9 +260,31 @@ public class ComplaintService {
             .and(ComplaintSpecifications.hasSeverity(severity))
             .and(ComplaintSpecifications.dateBetween(fromDate, toDate))
             .and(ComplaintSpecifications.hasDepartment(departmentId))
-            .and(ComplaintSpecifications.search(search));
+            .and(searchSpec(search));
 
-        return complaintRepository.findAll(spec, pageable).map(complaintMapper::toListItem);
+        return complaintRepository.findListRows(spec, pageable).map(complaintMapper::toListItem);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<ComplaintDtos.ComplaintListItemResponse> scrollStudentComplaints(
+        AuthenticatedUser authUser,
+        ComplaintStatus status,
+        ComplaintSeverity severity,
+        LocalDate fromDate,
+        LocalDate toDate,
+        UUID departmentId,
+        String search,
+        String cursor,
+        int size,
+        boolean includeTotal
+    ) {
+        Specification<Complaint> spec = where(ComplaintSpecifications.studentScoped(authUser.getId()))
+            .and(ComplaintSpecifications.hasStatus(status))
+            .and(ComplaintSpecifications.hasSeverity(severity))
+            .and(ComplaintSpecifications.dateBetween(fromDate, toDate))
+            .and(ComplaintSpecifications.hasDepartment(departmentId))
+            .and(searchSpec(search));
+        return scroll(spec, cursor, size, includeTotal);
     }
 
     @Transactional(readOnly = true)
@@ -132,7 +293,22 @@ public class ComplaintService {
         if (!complaint.getStudent().getId().equals(authUser.getId())) {
             throw new AppException(HttpStatus.FORBIDDEN, "You can only access your own complaints");
         }
-        return complaintMapper.toDetail(complaint);
+        return detail(complaint);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<ComplaintDtos.ComplaintEventResponse> listStudentComplaintEvents(
+        AuthenticatedUser authUser,
+        UUID complaintId,
+        String cursor,
+        int size
+    ) {
+        UUID studentId = complaintRepository.findStudentIdById(complaintId)
+            .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "Complaint not found"));
+        if (!studentId.equals(authUser.getId())) {
+            throw new AppException(HttpStatus.FORBIDDEN, "You can only access your own complaints");
+        }
+        return eventPage(complaintId, cursor, size);
     }
 
     @Transactional
@@ -146,7 +322,7 @@ public class ComplaintService {
             blankToDefault(request.message(), "Student marked complaint as resolved"));
         complaint.setStudentResolvedAt(Instant.now());
         changeStatus(complaint, ComplaintStatus.CLOSED, EventActorType.SYSTEM, "Complaint closed after student confirmation");
-        return complaintMapper.toDetail(complaintRepository.save(complaint));
+        return detail(complaintRepository.save(complaint));
     }
 
     @Transactional
@@ -163,7 +339,7 @@ public class ComplaintService {
         complaint.setEscalatedAt(Instant.now());
         changeStatus(complaint, ComplaintStatus.ESCALATED_TO_DIRECTOR, EventActorType.STUDENT,
             blankToDefault(request.reason(), overdue ? "Escalated to Director due to SLA breach" : "Escalated to Director by student (unsatisfied)"));
-        return complaintMapper.toDetail(complaintRepository.save(complaint));
+        return detail(complaintRepository.save(complaint));
     }
 
     @Transactional(readOnly = true)
@@ -174,21 +350,54 @@ public class ComplaintService {
         LocalDate toDate,
         UUID departmentId,
         String search,
+        ComplaintSortOrder sort,
         int page,
         int size
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        boolean byRelevance = sort == ComplaintSortOrder.RELEVANCE && search != null && !search.isBlank();
+        Pageable pageable = byRelevance
+            ? PageRequest.of(page, size)
+            : PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Specification<Complaint> spec = where(ComplaintSpecifications.hasStatus(status))
             .and(ComplaintSpecifications.hasSeverity(severity))
             .and(ComplaintSpecifications.dateBetween(fromDate, toDate))
             .and(ComplaintSpecifications.hasDepartment(departmentId))
-            .and(ComplaintSpecifications.search(search));
-        return complaintRepository.findAll(spec, pageable).map(complaintMapper::toListItem);
+            .and(searchSpec(search))
+            .and(byRelevance ? ComplaintSpecifications.orderByRelevance(search) : null);
+        return complaintRepository.findListRows(spec, pageable).map(complaintMapper::toListItem);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<ComplaintDtos.ComplaintListItemResponse> scrollAdminComplaints(
+        ComplaintStatus status,
+        ComplaintSeverity severity,
+        LocalDate fromDate,
+        LocalDate toDate,
+        UUID departmentId,
+        String search,
+        String cursor,
+        int size,
+        boolean includeTotal
+    ) {
+        Specification<Complaint> spec = where(ComplaintSpecifications.hasStatus(status))
+            .and(ComplaintSpecifications.hasSeverity(severity))
+            .and(ComplaintSpecifications.dateBetween(fromDate, toDate))
+            .and(ComplaintSpecifications.hasDepartment(departmentId))
+            .and(searchSpec(search));
+        return scroll(spec, cursor, size, includeTotal);
     }
 
     @Transactional(readOnly = true)
     public ComplaintDtos.ComplaintResponse getAdminComplaint(UUID complaintId) {
-        return complaintMapper.toDetail(reloadDetailed(complaintId));
+        return detail(reloadDetailed(complaintId));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<ComplaintDtos.ComplaintEventResponse> listComplaintEvents(UUID complaintId, String cursor, int size) {
+        if (!complaintRepository.existsById(complaintId)) {
+            throw new AppException(HttpStatus.NOT_FOUND, "Complaint not found");
+        }
+        return eventPage(complaintId, cursor, size);
     }
 
     @Transactional
@@ -199,29 +408,28 @@ public class ComplaintService {
 
         assignDepartmentInternal(complaint, department, adminUser, EventActorType.ADMIN,
             blankToDefault(request.note(), "Department assigned by admin"));
-        try {
-            sendDepartmentEmailAndStartSla(complaint, EventActorType.ADMIN, false);
-        } catch (MailException ex) {
-            addEvent(complaint, ComplaintEventType.COMMENT, EventActorType.SYSTEM,
-                "Department assigned but email send failed: " + ex.getMessage());
-        }
-        return complaintMapper.toDetail(complaintRepository.save(complaint));
+        complaint.setLabelsUpdatedAt(Instant.now());
+        queueDepartmentEmail(complaint, EventActorType.ADMIN, false);
+        return detail(complaintRepository.save(complaint));
     }
 
     @Transactional
     public ComplaintDtos.ComplaintResponse overrideAi(AuthenticatedUser admin, UUID complaintId, ComplaintDtos.OverrideAiRequest request) {
         Complaint complaint = reloadDetailed(complaintId);
+        ComplaintKpiStore.Bucket before = kpiBucket(complaint);
         complaint.setAiSeverity(request.aiSeverity());
+        recordKpiChange(before, complaint);
         if (request.aiDepartmentId() != null) {
             Department aiDept = getDepartment(request.aiDepartmentId());
             complaint.setAiDepartment(aiDept);
         }
+        complaint.setLabelsUpdatedAt(Instant.now());
         addEvent(complaint, ComplaintEventType.AI_CLASSIFIED, EventActorType.ADMIN,
             "AI classification overridden by admin (severity=" + request.aiSeverity().name() + ")");
         if (Boolean.TRUE.equals(request.resendEmailIfAssigned()) && complaint.getAssignedDepartment() != null) {
-            sendDepartmentEmailAndStartSla(complaint, EventActorType.ADMIN, true);
+            queueDepartmentEmail(complaint, EventActorType.ADMIN, true);
         }
-        return complaintMapper.toDetail(complaintRepository.save(complaint));
+        return detail(complaintRepository.save(complaint));
     }
 
     @Transactional
@@ -230,27 +438,25 @@ public class ComplaintService {
         if (complaint.getAssignedDepartment() == null) {
             throw new AppException(HttpStatus.BAD_REQUEST, "Complaint is not assigned to any department");
         }
-        sendDepartmentEmailAndStartSla(complaint, EventActorType.ADMIN, true);
-        return complaintMapper.toDetail(complaintRepository.save(complaint));
+        queueDepartmentEmail(complaint, EventActorType.ADMIN, true);
+        return detail(complaintRepository.save(complaint));
     }
 
     @Transactional
     public ComplaintDtos.ComplaintResponse acknowledgeByToken(UUID complaintId, ComplaintDtos.AcknowledgeComplaintRequest request) {
-        Complaint complaint = reloadDetailed(complaintId);
-        try {
-            if (!jwtService.isAcknowledgementTokenForComplaint(request.token(), complaintId)) {
-                throw new AppException(HttpStatus.UNAUTHORIZED, "Invalid acknowledgement token");
-            }
-        } catch (JwtException | IllegalArgumentException ex) {
-            throw new AppException(HttpStatus.UNAUTHORIZED, "Invalid acknowledgement token");
-        }
-        return acknowledgeInternal(complaint, EventActorType.SYSTEM, blankToDefault(request.message(), "Department acknowledged complaint"));
+        return detail(acknowledgeWithToken(complaintId, request));
+    }
+
+    /** Same as {@link #acknowledgeByToken} for callers that do not return the complaint. */
+    @Transactional
+    public void recordAcknowledgementByToken(UUID complaintId, ComplaintDtos.AcknowledgeComplaintRequest request) {
+        acknowledgeWithToken(complaintId, request);
     }
 
     @Transactional
     public ComplaintDtos.ComplaintResponse manualAcknowledge(UUID complaintId, ComplaintDtos.ManualAcknowledgeRequest request) {
         Complaint complaint = reloadDetailed(complaintId);
-        return acknowledgeInternal(complaint, EventActorType.ADMIN, blankToDefault(request.message(), "Acknowledgement marked by admin"));
+        return detail(acknowledgeInternal(complaint, EventActorType.ADMIN, blankToDefault(request.message(), "Acknowledgement marked by admin")));
     }
 
     @Transactional
@@ -260,59 +466,61 @@ public class ComplaintService {
             throw new AppException(HttpStatus.BAD_REQUEST, "Action taken can be marked only after email/acknowledgement");
         }
         changeStatus(complaint, ComplaintStatus.ACTION_TAKEN, EventActorType.ADMIN, request.message());
-        return complaintMapper.toDetail(complaintRepository.save(complaint));
+        return detail(complaintRepository.save(complaint));
     }
 
     @Transactional
     public ComplaintDtos.ComplaintResponse addInternalNote(UUID complaintId, ComplaintDtos.InternalNoteRequest request) {
         Complaint complaint = reloadDetailed(complaintId);
         addEvent(complaint, ComplaintEventType.COMMENT, EventActorType.ADMIN, request.message());
-        return complaintMapper.toDetail(complaintRepository.save(complaint));
+        return detail(complaintRepository.save(complaint));
     }
 
     @Transactional(readOnly = true)
     public List<ComplaintDtos.ComplaintListItemResponse> listOverdueComplaints() {
-        return complaintRepository.findByStatusAndSlaDueAtBeforeAndAckReceivedAtIsNull(ComplaintStatus.EMAIL_SENT, Instant.now())
+        return complaintRepository.findListRows(ComplaintSpecifications.overdueAt(Instant.now()), Sort.by(Sort.Direction.ASC, "slaDueAt"))
             .stream().map(complaintMapper::toListItem).toList();
     }
 
     @Transactional(readOnly = true)
     public ComplaintDtos.StudentDashboardKpis studentDashboardKpis(AuthenticatedUser authUser) {
-        List<Complaint> complaints = complaintRepository.findAll(where(ComplaintSpecifications.studentScoped(authUser.getId())));
-        long total = complaints.size();
-        long pending = complaints.stream().filter(c -> switch (c.getStatus()) {
-            case NEW, AI_CLASSIFIED, PENDING_ADMIN_ASSIGNMENT, ASSIGNED_TO_DEPARTMENT, EMAIL_SENT, ACK_RECEIVED, ACTION_TAKEN -> true;
-            default -> false;
-        }).count();
-        long assigned = complaints.stream().filter(c -> c.getAssignedDepartment() != null).count();
-        long resolved = complaints.stream().filter(c -> c.getStatus() == ComplaintStatus.CLOSED || c.getStatus() == ComplaintStatus.RESOLVED_BY_STUDENT).count();
-        long overdue = complaints.stream().filter(complaintMapper::isOverdue).count();
-        return new ComplaintDtos.StudentDashboardKpis(total, pending, assigned, resolved, overdue);
+        ComplaintKpiCounts counts = complaintRepository.findKpiCountsByStudent(authUser.getId(), Instant.now());
+        return new ComplaintDtos.StudentDashboardKpis(counts.total(), counts.open(), counts.assigned(), counts.resolved(), counts.overdue());
     }
 
-    @Transactional(readOnly = true)
+    // Served from the in-memory counters without opening a transaction.
     public ComplaintDtos.AdminDashboardKpis adminDashboardKpis() {
-        long total = complaintRepository.count();
-        long newCount = complaintRepository.countByStatus(ComplaintStatus.NEW);
-        long pendingAssignment = complaintRepository.countByStatus(ComplaintStatus.PENDING_ADMIN_ASSIGNMENT);
-        long closed = complaintRepository.countByStatus(ComplaintStatus.CLOSED);
-        long overdue = complaintRepository.findByStatusAndSlaDueAtBeforeAndAckReceivedAtIsNull(ComplaintStatus.EMAIL_SENT, Instant.now()).size();
-        return new ComplaintDtos.AdminDashboardKpis(total, newCount, pendingAssignment, overdue, closed);
+        ComplaintKpiStore.Snapshot kpis = complaintKpiStore.snapshot();
+        return new ComplaintDtos.AdminDashboardKpis(
+            kpis.total(),
+            kpis.count(ComplaintStatus.NEW),
+            kpis.count(ComplaintStatus.PENDING_ADMIN_ASSIGNMENT),
+            kpis.overdue(),
+            kpis.count(ComplaintStatus.CLOSED),
+            kpis.byStatus(),
+            kpis.bySeverity(),
+            kpis.byDepartment()
+        );
     }
 
-    @Transactional
+    /**
+     * Flags overdue complaints partition by partition and chunk by chunk; each chunk commits on its own so row
+     * locks stay short. Instances start at a random partition so replicas mostly work apart, and rows another
+     * instance holds are skipped rather than waited on; whatever a dead instance left unflagged is still overdue
+     * and unlocked, so any instance's next chunk picks it up.
+     */
     public int flagOverdueComplaints() {
-        List<Complaint> overdueComplaints = complaintRepository.findByStatusAndSlaDueAtBeforeAndAckReceivedAtIsNull(ComplaintStatus.EMAIL_SENT, Instant.now());
+        Instant now = Instant.now();
+        int start = ThreadLocalRandom.current().nextInt(OVERDUE_FLAG_PARTITIONS);
         int flagged = 0;
-        for (Complaint complaint : overdueComplaints) {
-            boolean exists = complaintEventRepository.existsByComplaint_IdAndEventTypeAndMessageContaining(
-                complaint.getId(), ComplaintEventType.COMMENT, OVERDUE_MARKER);
-            if (!exists) {
-                addEvent(complaint, ComplaintEventType.COMMENT, EventActorType.SYSTEM,
-                    OVERDUE_MARKER + " (due=" + complaint.getSlaDueAt() + ")");
-                complaintRepository.save(complaint);
-                flagged++;
-            }
+        for (int i = 0; i < OVERDUE_FLAG_PARTITIONS; i++) {
+            int partition = (start + i) % OVERDUE_FLAG_PARTITIONS;
+            int claimed;
+            do {
+                claimed = complaintRepository.flagOverdue(now, OVERDUE_MARKER, partition, OVERDUE_FLAG_PARTITIONS,
+                    OVERDUE_FLAG_CHUNK_SIZE);
+                flagged += claimed;
+            } while (claimed == OVERDUE_FLAG_CHUNK_SIZE);
         }
         return flagged;
     }
@@ -337,57 +545,156 @@ public class ComplaintService {
             """.formatted(complaintId, actionUrl, token);
     }
 
-    private void applyAiClassification(Complaint complaint) {
+    private void applyAiClassification(Complaint complaint, AiClassificationService.AiClassificationResult result) {
         changeStatus(complaint, ComplaintStatus.AI_CLASSIFIED, EventActorType.SYSTEM, "AI classification in progress/completed");
-        AiClassificationService.AiClassificationResult result = aiClassificationService.classify(complaint);
+        // The suggestion was resolved outside this transaction; re-read it so the complaint references a managed row.
+        Department suggested = result.suggestedDepartment() == null
+            ? null
+            : departmentRepository.findById(result.suggestedDepartment().getId()).orElse(null);
+        ComplaintKpiStore.Bucket before = kpiBucket(complaint);
         complaint.setAiSeverity(result.severity());
-        complaint.setAiDepartment(result.suggestedDepartment());
+        complaint.setAiDepartment(suggested);
         complaint.setAiRawResponseJson(result.rawResponseJson());
 
         String msg = "AI classified severity=" + result.severity().name();
-        if (result.suggestedDepartment() != null) {
-            msg += ", suggestedDepartment=" + result.suggestedDepartment().getName();
+        if (suggested != null) {
+            msg += ", suggestedDepartment=" + suggested.getName();
         }
         if (result.fallbackUsed()) {
             msg += " (fallback used" + (result.errorMessage() != null ? ": " + result.errorMessage() : "") + ")";
         }
         addEvent(complaint, ComplaintEventType.AI_CLASSIFIED, EventActorType.SYSTEM, msg);
 
-        if (result.fallbackUsed() && result.suggestedDepartment() == null) {
+        if (result.fallbackUsed() && suggested == null) {
             complaint.setStatus(ComplaintStatus.PENDING_ADMIN_ASSIGNMENT);
         }
+        recordKpiChange(before, complaint);
     }
 
-    private ComplaintDtos.ComplaintResponse acknowledgeInternal(Complaint complaint, EventActorType actor, String message) {
+    private Complaint acknowledgeWithToken(UUID complaintId, ComplaintDtos.AcknowledgeComplaintRequest request) {
+        try {
+            if (!jwtService.isAcknowledgementTokenForComplaint(request.token(), complaintId)) {
+                throw new AppException(HttpStatus.UNAUTHORIZED, "Invalid acknowledgement token");
+            }
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new AppException(HttpStatus.UNAUTHORIZED, "Invalid acknowledgement token");
+        }
+        Complaint complaint = complaintRepository.findWithDetailsById(complaintId)
+            .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "Complaint not found"));
+        Complaint acknowledged = acknowledgeInternal(complaint, EventActorType.SYSTEM, blankToDefault(request.message(), "Department acknowledged complaint"));
+        // Ack links are single-use; the revocation commits with the acknowledgement.
+        jwtService.revoke(request.token(), TokenRevocationReason.ACK_USED);
+        return acknowledged;
+    }
+
+    private Complaint acknowledgeInternal(Complaint complaint, EventActorType actor, String message) {
         if (complaint.getStatus() != ComplaintStatus.EMAIL_SENT && complaint.getStatus() != ComplaintStatus.ASSIGNED_TO_DEPARTMENT) {
             throw new AppException(HttpStatus.BAD_REQUEST, "Complaint is not awaiting acknowledgement");
         }
         complaint.setAckReceivedAt(Instant.now());
+        eventPublisher.publishEvent(new SlaDeadlineChangedEvent(complaint.getId(), null));
         changeStatus(complaint, ComplaintStatus.ACK_RECEIVED, actor, message);
         addEvent(complaint, ComplaintEventType.ACK_RECEIVED, actor, message);
-        return complaintMapper.toDetail(complaintRepository.save(complaint));
+        return complaintRepository.save(complaint);
     }
 
     private void assignDepartmentInternal(Complaint complaint, Department department, User adminUser, EventActorType actor, String message) {
+        ComplaintKpiStore.Bucket before = kpiBucket(complaint);
         complaint.setAssignedDepartment(department);
+        recordKpiChange(before, complaint);
         complaint.setAssignedByAdmin(adminUser);
         changeStatus(complaint, ComplaintStatus.ASSIGNED_TO_DEPARTMENT, actor, "Department assigned: " + department.getName());
         addEvent(complaint, ComplaintEventType.ADMIN_ASSIGNED, actor, message + " -> " + department.getName());
     }
 
-    private void sendDepartmentEmailAndStartSla(Complaint complaint, EventActorType actor, boolean resend) {
+    /**
+     * True while a queued email for {@code departmentId} may still start (or, for a resend, restart) the SLA: the
+     * complaint is where it was when the email was queued, or a resend finds an earlier email already sent.
+     */
+    private static boolean awaitsDepartmentEmail(Complaint complaint, UUID departmentId, ComplaintStatus queuedStatus, boolean resend) {
+        if (complaint.getAssignedDepartment() == null || !complaint.getAssignedDepartment().getId().equals(departmentId)) {
+            return false;
+        }
+        return complaint.getStatus() == queuedStatus
+            || (resend && complaint.getStatus() == ComplaintStatus.EMAIL_SENT);
+    }
+
+    private void queueDepartmentEmail(Complaint complaint, EventActorType actor, boolean resend) {
         if (complaint.getAssignedDepartment() == null) {
             throw new AppException(HttpStatus.BAD_REQUEST, "Assign department before sending email");
         }
+        // Delivered by DepartmentEmailRelay once this transaction commits; the SLA starts when it is sent.
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setComplaintId(complaint.getId());
+        message.setDepartmentId(complaint.getAssignedDepartment().getId());
+        message.setRequestedBy(actor);
+        message.setResend(resend);
+        message.setQueuedStatus(complaint.getStatus());
+        // Explicit resends always go out on their own.
+        message.setDigest(!resend && complaint.getAssignedDepartment().isEmailDigestEnabled());
+        message.setStatus(EmailOutboxStatus.PENDING);
+        message.setNextAttemptAt(Instant.now());
+        emailOutboxRepository.save(message);
+    }
 
-        departmentMailService.sendAssignmentEmail(complaint);
-        Instant emailSentAt = Instant.now();
-        complaint.setEmailSentAt(emailSentAt);
-        complaint.setSlaDueAt(emailSentAt.plus(7, ChronoUnit.DAYS));
-        complaint.setAckReceivedAt(null);
-        changeStatus(complaint, ComplaintStatus.EMAIL_SENT, actor, resend ? "Department email resent" : "Department email sent and SLA started (7 days)");
-        addEvent(complaint, ComplaintEventType.EMAIL_SENT, actor,
-            (resend ? "Department email resent" : "Department email sent") + ", SLA due at " + complaint.getSlaDueAt());
+    // Keyset page over (created_at, id): one extra row tells whether another page exists, no count unless asked.
+    private PageResponse<ComplaintDtos.ComplaintListItemResponse> scroll(
+        Specification<Complaint> filters,
+        String cursor,
+        int size,
+        boolean includeTotal
+    ) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new AppException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+        ComplaintCursor position = cursor == null || cursor.isBlank() ? null : ComplaintCursor.decode(cursor);
+        Sort order = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        List<ComplaintListRow> rows = complaintRepository.findListRows(
+            where(filters).and(ComplaintSpecifications.after(position)), order, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<ComplaintListRow> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? ComplaintCursor.after(pageRows.get(size - 1)).encode() : null;
+        Long total = includeTotal ? complaintRepository.count(filters) : null;
+        return PageResponse.fromCursor(pageRows.stream().map(complaintMapper::toListItem).toList(), size, position == null, nextCursor, total);
+    }
+
+    private PageResponse<ComplaintDtos.ComplaintEventResponse> eventPage(UUID complaintId, String cursor, int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new AppException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+        ComplaintCursor position = cursor == null || cursor.isBlank() ? null : ComplaintCursor.decode(cursor);
+        List<ComplaintEvent> events = latestEvents(complaintId, position, size + 1);
+        boolean hasMore = events.size() > size;
+        List<ComplaintEvent> pageEvents = hasMore ? events.subList(0, size) : events;
+        String nextCursor = hasMore ? ComplaintCursor.after(pageEvents.get(size - 1)).encode() : null;
+        return PageResponse.fromCursor(pageEvents.stream().map(complaintMapper::toEvent).toList(), size, position == null, nextCursor, null);
+    }
+
+    private List<ComplaintEvent> latestEvents(UUID complaintId, ComplaintCursor before, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return before == null
+            ? complaintEventRepository.findLatest(complaintId, page)
+            : complaintEventRepository.findLatestBefore(complaintId, before.createdAt(), before.id(), page);
+    }
+
+    // Embeds only the latest events; the full history is paged from the events endpoints.
+    private ComplaintDtos.ComplaintResponse detail(Complaint complaint) {
+        List<ComplaintEvent> latest = latestEvents(complaint.getId(), null, DETAIL_TIMELINE_SIZE + 1);
+        boolean hasMore = latest.size() > DETAIL_TIMELINE_SIZE;
+        List<ComplaintEvent> timeline = new ArrayList<>(hasMore ? latest.subList(0, DETAIL_TIMELINE_SIZE) : latest);
+        String timelineCursor = hasMore ? ComplaintCursor.after(timeline.get(DETAIL_TIMELINE_SIZE - 1)).encode() : null;
+        Collections.reverse(timeline);
+        return complaintMapper.toDetail(complaint, timeline, timelineCursor);
+    }
+
+    private Specification<Complaint> searchSpec(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        // Resolve matching students up front so the complaint side stays index-only; very broad text falls back to a subquery.
+        List<UUID> studentIds = userRepository.findIdsByNameOrEmailLike(
+            ComplaintSpecifications.containsPattern(search), PageRequest.of(0, STUDENT_SEARCH_LIMIT + 1));
+        return ComplaintSpecifications.search(search, studentIds.size() > STUDENT_SEARCH_LIMIT ? null : studentIds);
     }
 
     private void ensureStudentOwner(AuthenticatedUser authUser, Complaint complaint) {
@@ -398,7 +705,9 @@ public class ComplaintService {
 
     private void changeStatus(Complaint complaint, ComplaintStatus newStatus, EventActorType actor, String message) {
         ComplaintStatus previous = complaint.getStatus();
+        ComplaintKpiStore.Bucket before = kpiBucket(complaint);
         complaint.setStatus(newStatus);
+        recordKpiChange(before, complaint);
         if (previous != newStatus) {
             addEvent(complaint, ComplaintEventType.STATUS_CHANGE, actor,
                 "Status changed: " + previous + " -> " + newStatus + ". " + message);
@@ -408,6 +717,19 @@ public class ComplaintService {
         }
     }
 
+    private ComplaintKpiStore.Bucket kpiBucket(Complaint complaint) {
+        Department department = complaint.getAssignedDepartment();
+        return new ComplaintKpiStore.Bucket(complaint.getStatus(), complaint.getAiSeverity(), department == null ? null : department.getId());
+    }
+
+    // Counters move only if the surrounding transaction commits.
+    private void recordKpiChange(ComplaintKpiStore.Bucket before, Complaint complaint) {
+        ComplaintKpiStore.Bucket after = kpiBucket(complaint);
+        if (!after.equals(before)) {
+            eventPublisher.publishEvent(new ComplaintKpiChangedEvent(before, after));
+        }
+    }
+
     private void addEvent(Complaint complaint, ComplaintEventType type, EventActorType actor, String message) {
         ComplaintEvent event = new ComplaintEvent();
         event.setEventType(type);
@@ -419,9 +741,8 @@ public class ComplaintService {
     private Complaint reloadDetailed(UUID complaintId) {
         Complaint complaint = complaintRepository.findWithDetailsById(complaintId)
             .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "Complaint not found"));
-        // Avoid Hibernate multiple-bag fetch issues by initializing collections separately.
+        // Images are few and always shown; events stay lazy and are paged separately.
         complaint.getImages().size();
-        complaint.getEvents().size();
         return complaint;
     }
 
@@ -438,4 +759,6 @@ public class ComplaintService {
     private String blankToDefault(String value, String fallback) {
         return (value == null || value.isBlank()) ? fallback : value.trim();
     }
+
+    public record PreparedDigest(DepartmentMailService.OutgoingEmail email, List<UUID> complaintIds) {}
 }
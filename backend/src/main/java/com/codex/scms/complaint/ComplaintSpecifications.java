@@ -1,14 +1,28 @@
 package com.codex.scms.complaint;
 
 import com.codex.scms.domain.entity.Complaint;
+import com.codex.scms.domain.entity.User;
 import com.codex.scms.domain.enums.ComplaintSeverity;
 import com.codex.scms.domain.enums.ComplaintStatus;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 public final class ComplaintSpecifications {
+    private static final Pattern APOSTROPHE = Pattern.compile("['\u2019]");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     private ComplaintSpecifications() {}
 
     public static Specification<Complaint> studentScoped(UUID studentId) {
@@ -27,6 +41,14 @@ public final class ComplaintSpecifications {
         return departmentId == null ? null : (root, query, cb) -> cb.equal(root.get("assignedDepartment").get("id"), departmentId);
     }
 
+    public static Specification<Complaint> overdueAt(Instant now) {
+        return (root, query, cb) -> cb.and(
+            cb.equal(root.get("status"), ComplaintStatus.EMAIL_SENT),
+            cb.lessThan(root.get("slaDueAt"), now),
+            cb.isNull(root.get("ackReceivedAt"))
+        );
+    }
+
     public static Specification<Complaint> dateBetween(LocalDate from, LocalDate to) {
         if (from == null && to == null) return null;
         return (root, query, cb) -> {
@@ -40,15 +62,71 @@ public final class ComplaintSpecifications {
         };
     }
 
-    public static Specification<Complaint> search(String q) {
-        if (q == null || q.isBlank()) return null;
-        String like = "%" + q.trim().toLowerCase() + "%";
+    /** Rows strictly after the cursor in {@code created_at desc, id desc} order. */
+    static Specification<Complaint> after(ComplaintCursor cursor) {
+        if (cursor == null) return null;
         return (root, query, cb) -> cb.or(
-            cb.like(cb.lower(root.get("title")), like),
-            cb.like(cb.lower(root.get("description")), like),
-            cb.like(cb.lower(root.get("area")), like),
-            cb.like(cb.lower(root.get("student").get("name")), like),
-            cb.like(cb.lower(root.get("student").get("email")), like)
+            cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+            cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()), cb.lessThan(root.get("id"), cursor.id()))
         );
     }
+
+    /**
+     * Full-text match on title, area and description, each word matched as a prefix, or a student whose name
+     * or email contains the text. {@code matchingStudentIds} comes from the trigram-indexed user lookup; pass
+     * null to match students with a subquery instead.
+     */
+    public static Specification<Complaint> search(String q, Collection<UUID> matchingStudentIds) {
+        if (q == null || q.isBlank()) return null;
+        String tsQuery = toPrefixTsQuery(q);
+        return (root, query, cb) -> {
+            List<Predicate> anyOf = new ArrayList<>(2);
+            if (tsQuery != null) {
+                anyOf.add(cb.isTrue(cb.function("fts_match", Boolean.class, root.get("searchVector"), cb.literal(tsQuery))));
+            }
+            if (matchingStudentIds == null) {
+                String like = containsPattern(q);
+                Subquery<UUID> students = query.subquery(UUID.class);
+                Root<User> user = students.from(User.class);
+                students.select(user.get("id")).where(cb.or(
+                    cb.like(cb.lower(user.get("name")), like),
+                    cb.like(cb.lower(user.get("email")), like)
+                ));
+                anyOf.add(root.get("student").get("id").in(students));
+            } else if (!matchingStudentIds.isEmpty()) {
+                anyOf.add(root.get("student").get("id").in(matchingStudentIds));
+            }
+            return cb.or(anyOf.toArray(Predicate[]::new));
+        };
+    }
+
+    /** Orders by full-text rank, newest first among equals; count queries are left unordered. */
+    public static Specification<Complaint> orderByRelevance(String q) {
+        String tsQuery = q == null ? null : toPrefixTsQuery(q);
+        if (tsQuery == null) return null;
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                    cb.desc(cb.function("fts_rank", Double.class, root.get("searchVector"), cb.literal(tsQuery))),
+                    cb.desc(root.get("createdAt"))
+                );
+            }
+            return null;
+        };
+    }
+
+    public static String containsPattern(String q) {
+        return "%" + q.trim().toLowerCase() + "%";
+    }
+
+    static String toPrefixTsQuery(String q) {
+        StringJoiner terms = new StringJoiner(" & ");
+        // Apostrophes join rather than split words ("student's" -> "students").
+        for (String word : NON_WORD.split(APOSTROPHE.matcher(q.toLowerCase(Locale.ROOT)).replaceAll(""))) {
+            if (!word.isEmpty()) {
+                terms.add(word + ":*");
+            }
+        }
+        return terms.length() == 0 ? null : terms.toString();
+    }
 }
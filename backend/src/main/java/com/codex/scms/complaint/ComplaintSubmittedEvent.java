@@ -0,0 +1,5 @@
+package com.codex.scms.complaint;
+
+import java.util.UUID;
+
+public record ComplaintSubmittedEvent(UUID complaintId) {}
@@ -0,0 +1,168 @@
+package com.codex.scms.complaint;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.entity.EmailOutboxMessage;
+import com.codex.scms.email.DepartmentMailService;
+import com.codex.scms.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Delivers department emails queued in the outbox. Rows are claimed with a lease in a short transaction,
+ * rendered in a read-only one and sent outside any transaction over a single SMTP session per batch; the
+ * complaint's SLA starts only once the send succeeded. Failed sends are retried with exponential backoff.
+ * Departments in digest mode get one email listing all their queued complaints.
+ */
+@Slf4j
+@Component
+public class DepartmentEmailRelay {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ComplaintService complaintService;
+    private final DepartmentMailService departmentMailService;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public DepartmentEmailRelay(
+        EmailOutboxRepository emailOutboxRepository,
+        ComplaintService complaintService,
+        DepartmentMailService departmentMailService,
+        AppProperties appProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.complaintService = complaintService;
+        this.departmentMailService = departmentMailService;
+        this.appProperties = appProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-outbox.poll-interval-ms:2000}")
+    public void relayDueEmails() {
+        AppProperties.EmailOutbox config = appProperties.getEmailOutbox();
+        sendAll(prepareDueDigests(config), config);
+        List<ClaimedEmail> claimed;
+        do {
+            claimed = claim(config);
+            List<Delivery> deliveries = new ArrayList<>();
+            for (ClaimedEmail email : claimed) {
+                prepare(email, config).ifPresent(deliveries::add);
+            }
+            sendAll(deliveries, config);
+        } while (claimed.size() == config.getBatchSize());
+    }
+
+    private List<ClaimedEmail> claim(AppProperties.EmailOutbox config) {
+        Instant now = Instant.now();
+        return lease(() -> emailOutboxRepository.lockDue(now, config.getBatchSize()), now, config);
+    }
+
+    private List<ClaimedEmail> lease(Supplier<List<EmailOutboxMessage>> lock, Instant now, AppProperties.EmailOutbox config) {
+        List<ClaimedEmail> claimed = transactionTemplate.execute(status -> {
+            List<EmailOutboxMessage> due = lock.get();
+            due.forEach(message -> message.setNextAttemptAt(now.plusMillis(config.getLeaseMs())));
+            return due.stream()
+                .map(m -> new ClaimedEmail(m.getId(), m.getComplaintId(), m.getDepartmentId(), m.getAttempts()))
+                .toList();
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private Optional<Delivery> prepare(ClaimedEmail email, AppProperties.EmailOutbox config) {
+        Optional<DepartmentMailService.OutgoingEmail> outgoing;
+        try {
+            outgoing = complaintService.prepareDepartmentEmail(email.complaintId(), email.departmentId());
+        } catch (RuntimeException ex) {
+            fail(email, ex, config);
+            return Optional.empty();
+        }
+        if (outgoing.isEmpty()) {
+            cancel(email);
+            return Optional.empty();
+        }
+        return Optional.of(new Delivery(outgoing.get(), List.of(email)));
+    }
+
+    private List<Delivery> prepareDueDigests(AppProperties.EmailOutbox config) {
+        Instant now = Instant.now();
+        List<UUID> departmentIds = emailOutboxRepository.findDepartmentsWithDueDigest(
+            now, now.minusMillis(config.getDigestWindowMs()), config.getDigestMaxSize());
+        List<Delivery> deliveries = new ArrayList<>();
+        for (UUID departmentId : departmentIds) {
+            List<ClaimedEmail> claimed = lease(
+                () -> emailOutboxRepository.lockDigest(departmentId, now, config.getDigestMaxSize()), now, config);
+            if (claimed.isEmpty()) {
+                continue;
+            }
+            Optional<ComplaintService.PreparedDigest> digest;
+            try {
+                digest = complaintService.prepareDepartmentDigest(departmentId,
+                    claimed.stream().map(ClaimedEmail::complaintId).toList());
+            } catch (RuntimeException ex) {
+                claimed.forEach(email -> fail(email, ex, config));
+                continue;
+            }
+            List<UUID> included = digest.map(ComplaintService.PreparedDigest::complaintIds).orElse(List.of());
+            claimed.stream().filter(email -> !included.contains(email.complaintId())).forEach(this::cancel);
+            digest.ifPresent(d -> deliveries.add(new Delivery(d.email(),
+                claimed.stream().filter(email -> included.contains(email.complaintId())).toList())));
+        }
+        return deliveries;
+    }
+
+    private void sendAll(List<Delivery> deliveries, AppProperties.EmailOutbox config) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        // One SMTP session for the whole batch.
+        Map<DepartmentMailService.OutgoingEmail, Exception> failures =
+            departmentMailService.sendAll(deliveries.stream().map(Delivery::email).toList());
+        Instant sentAt = Instant.now();
+        for (Delivery delivery : deliveries) {
+            Exception failure = failures.get(delivery.email());
+            for (ClaimedEmail email : delivery.claims()) {
+                if (failure == null) {
+                    complaintService.recordDepartmentEmailSent(email.id(), sentAt);
+                } else {
+                    fail(email, failure, config);
+                }
+            }
+        }
+    }
+
+    private void cancel(ClaimedEmail email) {
+        log.info("Dropping queued email {}: complaint {} no longer awaits an email to department {}",
+            email.id(), email.complaintId(), email.departmentId());
+        complaintService.cancelDepartmentEmail(email.id());
+    }
+
+    private void fail(ClaimedEmail email, Exception ex, AppProperties.EmailOutbox config) {
+        int attempts = email.attempts() + 1;
+        String error = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+        Instant retryAt = null;
+        if (attempts < config.getMaxAttempts()) {
+            long backoff = Math.min(config.getMaxBackoffMs(), config.getInitialBackoffMs() << Math.min(attempts - 1, 20));
+            retryAt = Instant.now().plusMillis(backoff);
+            log.warn("Department email for complaint {} failed (attempt {}), retrying at {}: {}",
+                email.complaintId(), attempts, retryAt, error);
+        } else {
+            log.error("Department email for complaint {} failed after {} attempts, giving up", email.complaintId(), attempts, ex);
+        }
+        complaintService.recordDepartmentEmailFailure(email.id(), error, retryAt);
+    }
+
+    private record ClaimedEmail(UUID id, UUID complaintId, UUID departmentId, int attempts) {}
+
+    private record Delivery(DepartmentMailService.OutgoingEmail email, List<ClaimedEmail> claims) {}
+}
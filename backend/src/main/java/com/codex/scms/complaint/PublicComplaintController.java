@@ -42,7 +42,7 @@ public class PublicComplaintController {
         @RequestParam String token,
         @RequestParam(required = false) String message
     ) {
-        complaintService.acknowledgeByToken(id, new ComplaintDtos.AcknowledgeComplaintRequest(token, message));
+        complaintService.recordAcknowledgementByToken(id, new ComplaintDtos.AcknowledgeComplaintRequest(token, message));
         return "<html><body style='font-family:Arial;padding:24px;'><h3>Acknowledgement received</h3><p>Complaint reference: CMP-" + id + "</p></body></html>";
     }
 }
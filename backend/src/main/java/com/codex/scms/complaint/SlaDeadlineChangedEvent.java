@@ -0,0 +1,7 @@
+package com.codex.scms.complaint;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** A complaint's SLA deadline started or was met; {@code slaDueAt} is null once nothing is pending. */
+public record SlaDeadlineChangedEvent(UUID complaintId, Instant slaDueAt) {}
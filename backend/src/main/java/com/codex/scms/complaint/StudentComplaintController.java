@@ -54,11 +54,39 @@ public class StudentComplaintController {
         ));
     }
 
+    @GetMapping("/complaints/scroll")
+    public ApiResponse<PageResponse<ComplaintDtos.ComplaintListItemResponse>> scrollMyComplaints(
+        @AuthenticationPrincipal AuthenticatedUser user,
+        @RequestParam(required = false) ComplaintStatus status,
+        @RequestParam(required = false) ComplaintSeverity severity,
+        @RequestParam(required = false) UUID departmentId,
+        @RequestParam(required = false) String search,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        return ApiResponse.ok(
+            complaintService.scrollStudentComplaints(user, status, severity, fromDate, toDate, departmentId, search, cursor, size, includeTotal)
+        );
+    }
+
     @GetMapping("/complaints/{id}")
     public ApiResponse<ComplaintDtos.ComplaintResponse> getComplaint(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable UUID id) {
         return ApiResponse.ok(complaintService.getStudentComplaint(user, id));
     }
 
+    @GetMapping("/complaints/{id}/events")
+    public ApiResponse<PageResponse<ComplaintDtos.ComplaintEventResponse>> listEvents(
+        @AuthenticationPrincipal AuthenticatedUser user,
+        @PathVariable UUID id,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ApiResponse.ok(complaintService.listStudentComplaintEvents(user, id, cursor, size));
+    }
+
     @PostMapping("/complaints/{id}/resolve")
     public ApiResponse<ComplaintDtos.ComplaintResponse> markResolved(
         @AuthenticationPrincipal AuthenticatedUser user,
@@ -1,5 +1,7 @@
 package com.codex.scms.config;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -18,8 +20,12 @@ public class AppProperties {
     private Jwt jwt = new Jwt();
     private PublicUrls publicUrls = new PublicUrls();
     private Ai ai = new Ai();
+    private EmailOutbox emailOutbox = new EmailOutbox();
+    private EmailTemplates emailTemplates = new EmailTemplates();
     private Imgbb imgbb = new Imgbb();
     private Sla sla = new Sla();
+    private Uploads uploads = new Uploads();
+    private Kpi kpi = new Kpi();
 
     @Data
     public static class Cors {
@@ -34,6 +40,29 @@ public class AppProperties {
         private long accessTokenExpirationMinutes = 120;
         @Min(1)
         private long ackTokenExpirationHours = 240;
+        // How long a user's role and email are trusted before re-checking the database; 0 checks every request.
+        @Min(0)
+        private long userCacheTtlMs = 30000;
+        @Min(1)
+        private int userCacheMaxSize = 10000;
+        private Revocation revocation = new Revocation();
+    }
+
+    @Data
+    public static class Revocation {
+        // Sizing of the Bloom filter in front of the revoked_tokens table.
+        @Min(1)
+        private long expectedRevocations = 100000;
+        @DecimalMin("0.0001")
+        @DecimalMax("0.5")
+        private double falsePositiveRate = 0.01;
+        @Min(1)
+        private int exactCacheSize = 10000;
+        // Revocations made on other instances take effect here within this interval.
+        @Min(100)
+        private long syncIntervalMs = 5000;
+        @Min(1000)
+        private long pruneIntervalMs = 600000;
     }
 
     @Data
@@ -53,6 +82,126 @@ public class AppProperties {
         private int timeoutMs = 5000;
         private String apiKey;
         private String authHeaderName = "X-API-Key";
+        private Pipeline pipeline = new Pipeline();
+        private Batch batch = new Batch();
+        private Cache cache = new Cache();
+        private LocalModel localModel = new LocalModel();
+        private Guard guard = new Guard();
+    }
+
+    @Data
+    public static class Pipeline {
+        @Min(1)
+        private int workerThreads = 4;
+        @Min(1)
+        private int queueCapacity = 500;
+        // NEW complaints older than this are re-queued by the recovery sweep (e.g. after a restart or a full queue).
+        @Min(1000)
+        private long recoveryAgeMs = 120000;
+    }
+
+    @Data
+    public static class Batch {
+        // Off by default: one generateContent call per complaint.
+        private boolean enabled = false;
+        @Min(1)
+        private long windowMs = 250;
+        @Min(2)
+        private int maxSize = 8;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        @Min(1)
+        private int maxEntries = 2000;
+        @Min(1)
+        private long ttlSeconds = 6 * 60 * 60;
+    }
+
+    @Data
+    public static class Guard {
+        private boolean enabled = true;
+        // Circuit breaker over the outcomes of the last window-size calls.
+        @Min(1)
+        private int windowSize = 20;
+        @Min(1)
+        private int minimumCalls = 10;
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double failureRateThreshold = 0.5;
+        @Min(1)
+        private long slowCallMs = 10000;
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double slowCallRateThreshold = 0.8;
+        @Min(1)
+        private long openDurationMs = 30000;
+        @Min(1)
+        private int halfOpenProbes = 3;
+        // AIMD limit on in-flight calls: +1/limit per fast success, times backoff-ratio on failure or slow call.
+        @Min(1)
+        private int initialLimit = 8;
+        @Min(1)
+        private int minLimit = 1;
+        @Min(1)
+        private int maxLimit = 32;
+        @DecimalMin("0.1")
+        @DecimalMax("1.0")
+        private double backoffRatio = 0.7;
+    }
+
+    @Data
+    public static class LocalModel {
+        private boolean enabled = true;
+        @NotBlank
+        private String path = "data/ai-local-model.json";
+        // Below this many labelled complaints the model abstains.
+        @Min(1)
+        private int minSamples = 50;
+        @Min(60000)
+        private long retrainIntervalMs = 60 * 60 * 1000;
+        // Complaints younger than this are not trained on yet, so late admin corrections are picked up.
+        @Min(0)
+        private long settleAgeMs = 24 * 60 * 60 * 1000;
+        // Minimum department confidence for a fallback result to carry a department suggestion.
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double fallbackMinConfidence = 0.6;
+        // When enabled, confident local predictions are used without calling Gemini.
+        private boolean routerEnabled = false;
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double routerMinConfidence = 0.9;
+    }
+
+    @Data
+    public static class EmailOutbox {
+        @Min(100)
+        private long pollIntervalMs = 2000;
+        @Min(1)
+        private int batchSize = 20;
+        @Min(1)
+        private int maxAttempts = 8;
+        // Retry delay doubles per failed attempt, starting here and capped at max-backoff-ms.
+        @Min(1000)
+        private long initialBackoffMs = 30000;
+        @Min(1000)
+        private long maxBackoffMs = 60 * 60 * 1000;
+        // Claimed messages are hidden from other relays this long, so a crash mid-send only delays them.
+        @Min(1000)
+        private long leaseMs = 5 * 60 * 1000;
+        // Digest departments get one email per window, or earlier once digest-max-size complaints are queued.
+        @Min(1000)
+        private long digestWindowMs = 30 * 60 * 1000;
+        @Min(2)
+        private int digestMaxSize = 25;
+    }
+
+    @Data
+    public static class EmailTemplates {
+        // Re-read and recompile templates on every render (development only).
+        private boolean reload = false;
     }
 
     @Data
@@ -66,11 +215,36 @@ public class AppProperties {
         private long maxImageSizeBytes = 5 * 1024 * 1024;
         @NotEmpty
         private List<String> allowedMimeTypes = new ArrayList<>(List.of("image/jpeg", "image/png", "image/webp"));
+        // Files of one request are uploaded concurrently on this shared pool.
+        @Min(1)
+        private int uploadThreads = 8;
+        @Min(0)
+        private int uploadQueueCapacity = 100;
     }
 
     @Data
     public static class Sla {
         @NotBlank
         private String schedulerCron = "0 0 * * * *";
+        private boolean timerEnabled = true;
+        // Deadlines due within this window are loaded into the timer; should exceed the scheduler period.
+        @Min(60000)
+        private long timerHorizonMs = 2 * 60 * 60 * 1000L;
+    }
+
+    @Data
+    public static class Uploads {
+        @NotBlank
+        private String localDir = "uploads";
+        // Mapped files kept for reclassification of the same images.
+        @Min(0)
+        private long aiReadCacheBytes = 16 * 1024 * 1024;
+    }
+
+    @Data
+    public static class Kpi {
+        // In-memory dashboard counters are checked against the database this often; overdue is refreshed here too.
+        @Min(1000)
+        private long reconcileIntervalMs = 60_000;
     }
 }
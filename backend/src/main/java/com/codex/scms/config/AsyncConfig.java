@@ -0,0 +1,42 @@
+package com.codex.scms.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    public static final String CLASSIFICATION_EXECUTOR = "classificationExecutor";
+    public static final String IMAGE_UPLOAD_EXECUTOR = "imageUploadExecutor";
+
+    @Bean(name = CLASSIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor classificationExecutor(AppProperties appProperties) {
+        AppProperties.Pipeline pipeline = appProperties.getAi().getPipeline();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ai-classify-");
+        executor.setCorePoolSize(pipeline.getWorkerThreads());
+        executor.setMaxPoolSize(pipeline.getWorkerThreads());
+        executor.setQueueCapacity(pipeline.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = IMAGE_UPLOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor imageUploadExecutor(AppProperties appProperties) {
+        AppProperties.Imgbb imgbb = appProperties.getImgbb();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("image-upload-");
+        executor.setCorePoolSize(imgbb.getUploadThreads());
+        executor.setMaxPoolSize(imgbb.getUploadThreads());
+        executor.setQueueCapacity(imgbb.getUploadQueueCapacity());
+        // When saturated the request thread uploads its own files, as it did before the pool existed.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,22 @@
+package com.codex.scms.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Exposes PostgreSQL full-text operators to JPQL and criteria queries. Both functions take a tsvector
+ * expression and a {@code to_tsquery} string in the {@code english} configuration.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(
+            "fts_match", "(?1 @@ to_tsquery('english', ?2))", types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(
+            "fts_rank", "ts_rank_cd(?1, to_tsquery('english', ?2))", types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -12,13 +12,15 @@ public final class DepartmentDtos {
 
     public record DepartmentRequest(
         @NotBlank @Size(max = 120) String name,
-        @NotBlank @Email String authorityEmail
+        @NotBlank @Email String authorityEmail,
+        Boolean emailDigestEnabled
     ) {}
 
     public record DepartmentResponse(
         UUID id,
         String name,
         String authorityEmail,
+        boolean emailDigestEnabled,
         Instant createdAt,
         Instant updatedAt
     ) {}
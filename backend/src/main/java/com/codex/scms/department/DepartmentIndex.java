@@ -0,0 +1,179 @@
+package com.codex.scms.department;
+
+import com.codex.scms.domain.entity.Department;
+import com.codex.scms.repository.DepartmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable in-memory lookup of departments by name, alias and normalized label, used to map free-form
+ * AI department labels without database round trips. Rebuilt at startup and after department changes commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DepartmentIndex {
+
+    // Labels the classifier prompt uses that differ from the seeded department names.
+    private static final Map<String, String> ALIASES = Map.of(
+        "hostel maintenance", "hostel",
+        "harassment response", "harassment",
+        "information technology", "it"
+    );
+    private static final int MAX_FUZZY_SCORE = 2;
+
+    private final DepartmentRepository departmentRepository;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDepartmentsChanged(DepartmentsChangedEvent event) {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        snapshot = Snapshot.of(departmentRepository.findAll());
+        log.debug("Department index rebuilt with {} departments", snapshot.names().size());
+    }
+
+    /** Maps a model-provided department label to a configured department, if any is close enough. */
+    public Optional<Department> resolve(String label) {
+        if (label == null || label.isBlank() || "null".equalsIgnoreCase(label.trim())) {
+            return Optional.empty();
+        }
+        Snapshot current = snapshot;
+        String name = label.trim();
+        String lowered = name.toLowerCase(Locale.ROOT);
+
+        Department match = current.byName().get(lowered);
+        if (match == null) {
+            match = current.byName().get(name.replace("Department", "").trim().toLowerCase(Locale.ROOT));
+        }
+        if (match == null && ALIASES.containsKey(lowered)) {
+            match = current.byName().get(ALIASES.get(lowered));
+        }
+        if (match != null) {
+            return Optional.of(match);
+        }
+
+        String target = normalizeLabel(name);
+        if (target.isEmpty()) {
+            return Optional.empty();
+        }
+        String[] targetTokens = tokens(target);
+        Department best = null;
+        int bestScore = Integer.MAX_VALUE;
+        for (Entry entry : current.entries()) {
+            int score = distanceScore(entry.label(), target, targetTokens);
+            if (score < bestScore) {
+                best = entry.department();
+                bestScore = score;
+            }
+        }
+        return bestScore <= MAX_FUZZY_SCORE ? Optional.ofNullable(best) : Optional.empty();
+    }
+
+    public Optional<Department> findById(UUID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    /** Configured department names, sorted case-insensitively. */
+    public List<String> names() {
+        return snapshot.names();
+    }
+
+    static String normalizeLabel(String value) {
+        if (value == null) {
+            return "";
+        }
+        String lowered = value.toLowerCase(Locale.ROOT).replace("&", "and").replace("department", "");
+        StringBuilder out = new StringBuilder(lowered.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < lowered.length(); i++) {
+            char c = lowered.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (pendingSpace) {
+                    out.append(' ');
+                    pendingSpace = false;
+                }
+                out.append(c);
+            } else {
+                pendingSpace = out.length() > 0;
+            }
+        }
+        return out.toString();
+    }
+
+    private static int distanceScore(String candidate, String target, String[] targetTokens) {
+        if (candidate.equals(target)) return 0;
+        if (candidate.contains(target) || target.contains(candidate)) return 1;
+        // token overlap fallback for labels like "hostel maintenance" vs "hostel"
+        for (String token : targetTokens) {
+            if (candidate.contains(token)) {
+                return 2;
+            }
+        }
+        return 100;
+    }
+
+    private static String[] tokens(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= normalized.length(); i++) {
+            if (i == normalized.length() || normalized.charAt(i) == ' ') {
+                if (i > start) {
+                    tokens.add(normalized.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return tokens.toArray(String[]::new);
+    }
+
+    private record Entry(String label, Department department) {}
+
+    private record Snapshot(
+        Map<String, Department> byName,
+        Map<UUID, Department> byId,
+        List<Entry> entries,
+        List<String> names
+    ) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), List.of(), List.of());
+
+        static Snapshot of(List<Department> departments) {
+            Map<String, Department> byName = new HashMap<>();
+            Map<UUID, Department> byId = new HashMap<>();
+            List<Entry> entries = new ArrayList<>(departments.size());
+            for (Department department : departments) {
+                byName.putIfAbsent(department.getName().trim().toLowerCase(Locale.ROOT), department);
+                if (department.getId() != null) {
+                    byId.put(department.getId(), department);
+                }
+                entries.add(new Entry(normalizeLabel(department.getName()), department));
+            }
+            List<String> names = departments.stream()
+                .map(Department::getName)
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .toList();
+            return new Snapshot(Map.copyOf(byName), Map.copyOf(byId), List.copyOf(entries), names);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.codex.scms.common.AppException;
 import com.codex.scms.domain.entity.Department;
 import com.codex.scms.repository.DepartmentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,7 @@ import java.util.UUID;
 public class DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public DepartmentDtos.DepartmentResponse create(DepartmentDtos.DepartmentRequest request) {
@@ -26,7 +28,12 @@ public class DepartmentService {
         Department department = new Department();
         department.setName(request.name().trim());
         department.setAuthorityEmail(request.authorityEmail().trim().toLowerCase());
-        return toResponse(departmentRepository.save(department));
+        if (request.emailDigestEnabled() != null) {
+            department.setEmailDigestEnabled(request.emailDigestEnabled());
+        }
+        Department saved = departmentRepository.save(department);
+        eventPublisher.publishEvent(new DepartmentsChangedEvent());
+        return toResponse(saved);
     }
 
     @Transactional(readOnly = true)
@@ -50,13 +57,19 @@ public class DepartmentService {
         }
         department.setName(request.name().trim());
         department.setAuthorityEmail(request.authorityEmail().trim().toLowerCase());
-        return toResponse(departmentRepository.save(department));
+        if (request.emailDigestEnabled() != null) {
+            department.setEmailDigestEnabled(request.emailDigestEnabled());
+        }
+        Department saved = departmentRepository.save(department);
+        eventPublisher.publishEvent(new DepartmentsChangedEvent());
+        return toResponse(saved);
     }
 
     @Transactional
     public void delete(UUID id) {
         Department department = getEntity(id);
         departmentRepository.delete(department);
+        eventPublisher.publishEvent(new DepartmentsChangedEvent());
     }
 
     public Department getEntity(UUID id) {
@@ -65,6 +78,6 @@ public class DepartmentService {
     }
 
     private DepartmentDtos.DepartmentResponse toResponse(Department d) {
-        return new DepartmentDtos.DepartmentResponse(d.getId(), d.getName(), d.getAuthorityEmail(), d.getCreatedAt(), d.getUpdatedAt());
+        return new DepartmentDtos.DepartmentResponse(d.getId(), d.getName(), d.getAuthorityEmail(), d.isEmailDigestEnabled(), d.getCreatedAt(), d.getUpdatedAt());
     }
 }
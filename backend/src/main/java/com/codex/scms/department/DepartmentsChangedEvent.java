@@ -0,0 +1,5 @@
+package com.codex.scms.department;
+
+/** Published when a department is created, renamed or deleted. */
+public record DepartmentsChangedEvent() {
+}
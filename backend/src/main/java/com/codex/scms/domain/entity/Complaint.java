@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -24,9 +25,18 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "complaints")
+@Table(name = "complaints", indexes = {
+    @Index(name = "idx_complaints_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_complaints_student_created_at_id", columnList = "student_id, created_at, id"),
+    @Index(name = "idx_complaints_labels_updated_at", columnList = "labels_updated_at")
+})
 public class Complaint extends BaseEntity {
 
+    public static final String SEARCH_VECTOR_DEFINITION = "tsvector generated always as ("
+        + "setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+        + "setweight(to_tsvector('english', coalesce(area, '')), 'B') || "
+        + "setweight(to_tsvector('english', coalesce(description, '')), 'C')) stored";
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "student_id", nullable = false)
     private User student;
@@ -72,6 +82,13 @@ public class Complaint extends BaseEntity {
     @Column(name = "ack_received_at")
     private Instant ackReceivedAt;
 
+    @Column(name = "overdue_flagged_at")
+    private Instant overdueFlaggedAt;
+
+    // Last admin change to the department or severity labels; lets the local classifier spot late corrections.
+    @Column(name = "labels_updated_at")
+    private Instant labelsUpdatedAt;
+
     @Column(name = "student_resolved_at")
     private Instant studentResolvedAt;
 
@@ -81,6 +98,10 @@ public class Complaint extends BaseEntity {
     @Column(name = "ai_raw_response_json", columnDefinition = "text")
     private String aiRawResponseJson;
 
+    // Maintained by PostgreSQL; weights rank title over area over description.
+    @Column(name = "search_vector", insertable = false, updatable = false, columnDefinition = SEARCH_VECTOR_DEFINITION)
+    private String searchVector;
+
     @OneToMany(mappedBy = "complaint", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("createdAt ASC")
     private List<ComplaintImage> images = new ArrayList<>();
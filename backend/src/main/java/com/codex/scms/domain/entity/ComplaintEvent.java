@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -16,7 +17,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "complaint_events")
+@Table(name = "complaint_events", indexes = {
+    @Index(name = "idx_complaint_events_complaint_created_at_id", columnList = "complaint_id, created_at, id")
+})
 public class ComplaintEvent extends CreatedOnlyEntity {
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -17,4 +17,8 @@ public class Department extends BaseEntity {
 
     @Column(name = "authority_email", nullable = false, length = 255)
     private String authorityEmail;
+
+    // Assignment emails are collected into periodic digests instead of one email per complaint.
+    @Column(name = "email_digest_enabled", nullable = false)
+    private boolean emailDigestEnabled;
 }
@@ -0,0 +1,66 @@
+package com.codex.scms.domain.entity;
+
+import com.codex.scms.domain.enums.ComplaintStatus;
+import com.codex.scms.domain.enums.EmailOutboxStatus;
+import com.codex.scms.domain.enums.EventActorType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Department assignment email recorded in the complaint's transaction and delivered later by the relay. */
+@Getter
+@Setter
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_digest", columnList = "department_id, created_at")
+})
+public class EmailOutboxMessage extends BaseEntity {
+
+    @Column(name = "complaint_id", nullable = false)
+    private UUID complaintId;
+
+    // Department the email was queued for; the message is dropped if the complaint was reassigned meanwhile.
+    @Column(name = "department_id", nullable = false)
+    private UUID departmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "requested_by", nullable = false, length = 20)
+    private EventActorType requestedBy;
+
+    @Column(nullable = false)
+    private boolean resend;
+
+    // Complaint status when the email was queued; sending only moves the complaint on if it is still there.
+    @Enumerated(EnumType.STRING)
+    @Column(name = "queued_status", length = 50)
+    private ComplaintStatus queuedStatus;
+
+    // Held for the department's next digest email rather than sent on its own.
+    @Column(nullable = false)
+    private boolean digest;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailOutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
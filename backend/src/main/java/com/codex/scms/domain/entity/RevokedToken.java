@@ -0,0 +1,34 @@
+package com.codex.scms.domain.entity;
+
+import com.codex.scms.domain.enums.TokenRevocationReason;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** A JWT revoked before its expiry, identified by its {@code jti}; kept until the token would have expired anyway. */
+@Getter
+@Setter
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_revoked_tokens_created_at", columnList = "created_at")
+})
+public class RevokedToken extends CreatedOnlyEntity {
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TokenRevocationReason reason;
+}
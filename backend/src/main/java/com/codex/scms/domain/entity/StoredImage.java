@@ -0,0 +1,27 @@
+package com.codex.scms.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/** A locally stored image file, named by the SHA-256 of its content and shared by every upload of the same bytes. */
+@Getter
+@Setter
+@Entity
+@Table(name = "stored_images")
+public class StoredImage extends CreatedOnlyEntity {
+
+    @Column(name = "content_hash", nullable = false, unique = true, length = 64)
+    private String contentHash;
+
+    @Column(name = "relative_path", nullable = false, length = 100)
+    private String relativePath;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+}
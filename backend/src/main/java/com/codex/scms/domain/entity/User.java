@@ -1,18 +1,23 @@
 package com.codex.scms.domain.entity;
 
 import com.codex.scms.domain.enums.UserRole;
+import com.codex.scms.security.UserCacheEvictionListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Getter
 @Setter
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheEvictionListener.class)
 public class User extends BaseEntity {
 
     @Column(nullable = false, length = 150)
@@ -27,4 +32,8 @@ public class User extends BaseEntity {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private UserRole role;
+
+    // Access tokens issued at or before this instant are rejected; set when an admin revokes the user's sessions.
+    @Column(name = "tokens_valid_after")
+    private Instant tokensValidAfter;
 }
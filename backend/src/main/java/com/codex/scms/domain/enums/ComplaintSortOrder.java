@@ -0,0 +1,6 @@
+package com.codex.scms.domain.enums;
+
+public enum ComplaintSortOrder {
+    NEWEST,
+    RELEVANCE
+}
@@ -0,0 +1,8 @@
+package com.codex.scms.domain.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED,
+    CANCELLED
+}
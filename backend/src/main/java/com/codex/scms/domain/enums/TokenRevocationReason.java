@@ -0,0 +1,6 @@
+package com.codex.scms.domain.enums;
+
+public enum TokenRevocationReason {
+    LOGOUT,
+    ACK_USED
+}
@@ -0,0 +1,104 @@
+package com.codex.scms.email;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Template parsed once into literal chunks and {@code {{NAME}}} slots, rendered in a single pass into a
+ * pre-sized builder. Slot values are HTML-escaped while being appended unless the slot is declared raw.
+ * Placeholders without a value are emitted unchanged.
+ */
+final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;
+    private final String[] slots;
+    private final boolean[] raw;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] slots, boolean[] raw) {
+        this.literals = literals;
+        this.slots = slots;
+        this.raw = raw;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    static CompiledTemplate compile(String source, Set<String> rawSlots) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            slots.add(source.substring(open + OPEN.length(), close));
+            position = close + CLOSE.length();
+        }
+        boolean[] raw = new boolean[slots.size()];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = rawSlots.contains(slots.get(i));
+        }
+        return new CompiledTemplate(literals.toArray(String[]::new), slots.toArray(String[]::new), raw);
+    }
+
+    String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(estimateLength(values));
+        appendTo(out, values);
+        return out.toString();
+    }
+
+    int estimateLength(Map<String, String> values) {
+        int valueLength = 0;
+        for (String slot : slots) {
+            String value = values.get(slot);
+            valueLength += value == null ? slot.length() + OPEN.length() + CLOSE.length() : value.length();
+        }
+        // A little headroom for escape expansion.
+        return literalLength + valueLength + (valueLength >> 4);
+    }
+
+    void appendTo(StringBuilder out, Map<String, String> values) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(slots[i]);
+            if (value == null) {
+                out.append(OPEN).append(slots[i]).append(CLOSE);
+            } else if (raw[i]) {
+                out.append(value);
+            } else {
+                appendEscaped(out, value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    static void appendEscaped(StringBuilder out, String value) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String entity = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(value, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+}
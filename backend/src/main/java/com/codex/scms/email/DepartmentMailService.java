@@ -2,16 +2,23 @@ package com.codex.scms.email;
 
 import com.codex.scms.config.AppProperties;
 import com.codex.scms.domain.entity.Complaint;
+import com.codex.scms.domain.entity.Department;
 import com.codex.scms.security.JwtService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -22,30 +29,88 @@ public class DepartmentMailService {
     private final AppProperties appProperties;
     private final EmailTemplateService emailTemplateService;
 
-    public void sendAssignmentEmail(Complaint complaint) {
+    /** Renders the assignment email; needs the complaint's images, so call it inside a transaction. */
+    public OutgoingEmail prepareAssignmentEmail(Complaint complaint) {
         if (complaint.getAssignedDepartment() == null) {
             throw new IllegalArgumentException("Assigned department is required before sending email");
         }
 
-        String token = jwtService.generateAcknowledgementToken(complaint.getId());
         String complaintRef = "CMP-" + complaint.getId();
-        String ackLink = appProperties.getPublicUrls().getBackendBaseUrl()
-            + "/api/complaints/" + complaint.getId() + "/acknowledge-link?token=" + token;
-        String html = emailTemplateService.renderDepartmentAssignmentEmail(complaint, complaintRef, ackLink);
+        String html = emailTemplateService.renderDepartmentAssignmentEmail(complaint, complaintRef, ackLink(complaint.getId()));
+        return new OutgoingEmail(
+            complaint.getId(),
+            complaint.getAssignedDepartment().getAuthorityEmail(),
+            "[" + complaintRef + "] Student Complaint Assigned - Action Required",
+            html
+        );
+    }
 
+    /** Renders one digest email for complaints assigned to the same department. */
+    public OutgoingEmail prepareDigestEmail(Department department, List<Complaint> complaints) {
+        List<EmailTemplateService.DigestEntry> entries = complaints.stream()
+            .map(c -> new EmailTemplateService.DigestEntry(c, "CMP-" + c.getId(), ackLink(c.getId())))
+            .toList();
+        String html = emailTemplateService.renderDepartmentDigestEmail(department.getName(), entries);
+        return new OutgoingEmail(
+            null,
+            department.getAuthorityEmail(),
+            "[Digest] " + complaints.size() + " Student Complaints Assigned to " + department.getName() + " - Action Required",
+            html
+        );
+    }
+
+    /**
+     * Sends all emails over one SMTP connection and returns the ones that failed with their cause; an empty
+     * map means everything was accepted by the mail server.
+     */
+    public Map<OutgoingEmail, Exception> sendAll(List<OutgoingEmail> emails) {
+        Map<OutgoingEmail, Exception> failures = new IdentityHashMap<>();
+        Map<MimeMessage, OutgoingEmail> byMessage = new IdentityHashMap<>();
+        for (OutgoingEmail email : emails) {
+            try {
+                MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+                helper.setTo(email.to());
+                helper.setSubject(email.subject());
+                helper.setText(email.html(), true);
+                byMessage.put(mimeMessage, email);
+            } catch (MessagingException ex) {
+                log.error("Failed to prepare complaint email for complaint {}", email.complaintId(), ex);
+                failures.put(email, ex);
+            }
+        }
+        if (byMessage.isEmpty()) {
+            return failures;
+        }
         try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            helper.setTo(complaint.getAssignedDepartment().getAuthorityEmail());
-            helper.setSubject("[" + complaintRef + "] Student Complaint Assigned - Action Required");
-            helper.setText(html, true);
-            javaMailSender.send(mimeMessage);
-        } catch (MessagingException ex) {
-            log.error("Failed to prepare complaint email for complaint {}", complaint.getId(), ex);
-            throw new IllegalStateException("Failed to prepare complaint email", ex);
+            if (byMessage.size() == 1) {
+                javaMailSender.send(byMessage.keySet().iterator().next());
+            } else {
+                javaMailSender.send(byMessage.keySet().toArray(MimeMessage[]::new));
+            }
         } catch (MailSendException ex) {
-            log.error("Failed to send complaint email for complaint {}", complaint.getId(), ex);
-            throw ex;
+            log.error("Failed to send {} of {} complaint emails", ex.getFailedMessages().size(), byMessage.size(), ex);
+            if (ex.getFailedMessages().isEmpty()) {
+                byMessage.values().forEach(email -> failures.put(email, ex));
+            }
+            ex.getFailedMessages().forEach((message, cause) -> {
+                OutgoingEmail email = byMessage.get(message);
+                if (email != null) {
+                    failures.put(email, cause instanceof MailException mailException ? mailException : new MailSendException(cause.getMessage(), cause));
+                }
+            });
+        } catch (MailException ex) {
+            log.error("Failed to send {} complaint emails", byMessage.size(), ex);
+            byMessage.values().forEach(email -> failures.put(email, ex));
         }
+        return failures;
+    }
+
+    private String ackLink(UUID complaintId) {
+        String token = jwtService.generateAcknowledgementToken(complaintId);
+        return appProperties.getPublicUrls().getBackendBaseUrl()
+            + "/api/complaints/" + complaintId + "/acknowledge-link?token=" + token;
     }
+
+    public record OutgoingEmail(UUID complaintId, String to, String subject, String html) {}
 }
@@ -1,6 +1,8 @@
 package com.codex.scms.email;
 
+import com.codex.scms.config.AppProperties;
 import com.codex.scms.domain.entity.Complaint;
+import com.codex.scms.domain.entity.ComplaintImage;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
@@ -9,37 +11,99 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class EmailTemplateService {
 
+    private static final String DEPARTMENT_ASSIGNMENT_TEMPLATE = "classpath:templates/department-assignment-email.html";
+    private static final String DEPARTMENT_DIGEST_TEMPLATE = "classpath:templates/department-digest-email.html";
+    private static final String DEPARTMENT_DIGEST_ITEM_TEMPLATE = "classpath:templates/department-digest-item.html";
+    // Pre-rendered HTML; everything else is escaped on render.
+    private static final Set<String> RAW_SLOTS = Set.of("IMAGE_LIST", "COMPLAINT_ITEMS");
+
     private final ResourceLoader resourceLoader;
+    private final AppProperties appProperties;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a z").withZone(ZoneId.systemDefault());
+    private final CompiledTemplate departmentAssignmentTemplate;
+    private final CompiledTemplate departmentDigestTemplate;
+    private final CompiledTemplate departmentDigestItemTemplate;
 
-    public EmailTemplateService(ResourceLoader resourceLoader) {
+    public EmailTemplateService(ResourceLoader resourceLoader, AppProperties appProperties) {
         this.resourceLoader = resourceLoader;
+        this.appProperties = appProperties;
+        this.departmentAssignmentTemplate = compile(DEPARTMENT_ASSIGNMENT_TEMPLATE);
+        this.departmentDigestTemplate = compile(DEPARTMENT_DIGEST_TEMPLATE);
+        this.departmentDigestItemTemplate = compile(DEPARTMENT_DIGEST_ITEM_TEMPLATE);
     }
 
     public String renderDepartmentAssignmentEmail(Complaint complaint, String complaintRef, String ackUrl) {
-        String template = loadTemplate("classpath:templates/department-assignment-email.html");
-        String images = complaint.getImages().stream()
-            .map(i -> "<li><a href=\"" + i.getImageUrl() + "\">" + i.getImageUrl() + "</a></li>")
-            .collect(Collectors.joining());
-        if (images.isBlank()) {
-            images = "<li>No images attached.</li>";
+        Map<String, String> values = new HashMap<>(16);
+        values.put("COMPLAINT_REF", complaintRef);
+        values.put("TITLE", nullToEmpty(complaint.getTitle()));
+        values.put("DESCRIPTION", nullToEmpty(complaint.getDescription()));
+        values.put("AREA", nullToEmpty(complaint.getArea()));
+        values.put("COMPLAINT_DATE", complaint.getComplaintDate().toString());
+        values.put("SEVERITY", complaint.getAiSeverity().name());
+        values.put("SLA_DUE_AT", complaint.getSlaDueAt() == null ? "TBD" : formatter.format(complaint.getSlaDueAt()));
+        values.put("ACK_URL", ackUrl);
+        values.put("IMAGE_LIST", imageList(complaint));
+        return template(DEPARTMENT_ASSIGNMENT_TEMPLATE, departmentAssignmentTemplate).render(values);
+    }
+
+    /** One email listing several complaints, each with its own acknowledgement link. */
+    public String renderDepartmentDigestEmail(String departmentName, List<DigestEntry> entries) {
+        CompiledTemplate itemTemplate = template(DEPARTMENT_DIGEST_ITEM_TEMPLATE, departmentDigestItemTemplate);
+        StringBuilder items = null;
+        for (DigestEntry entry : entries) {
+            Complaint complaint = entry.complaint();
+            Map<String, String> values = new HashMap<>(16);
+            values.put("COMPLAINT_REF", entry.complaintRef());
+            values.put("TITLE", nullToEmpty(complaint.getTitle()));
+            values.put("DESCRIPTION", nullToEmpty(complaint.getDescription()));
+            values.put("AREA", nullToEmpty(complaint.getArea()));
+            values.put("COMPLAINT_DATE", complaint.getComplaintDate().toString());
+            values.put("SEVERITY", complaint.getAiSeverity().name());
+            values.put("IMAGE_COUNT", String.valueOf(complaint.getImages().size()));
+            values.put("ACK_URL", entry.ackUrl());
+            if (items == null) {
+                items = new StringBuilder(itemTemplate.estimateLength(values) * entries.size());
+            }
+            itemTemplate.appendTo(items, values);
+        }
+
+        Map<String, String> values = new HashMap<>(8);
+        values.put("COMPLAINT_COUNT", String.valueOf(entries.size()));
+        values.put("DEPARTMENT_NAME", nullToEmpty(departmentName));
+        values.put("COMPLAINT_ITEMS", items == null ? "" : items.toString());
+        return template(DEPARTMENT_DIGEST_TEMPLATE, departmentDigestTemplate).render(values);
+    }
+
+    private String imageList(Complaint complaint) {
+        if (complaint.getImages().isEmpty()) {
+            return "<li>No images attached.</li>";
+        }
+        StringBuilder images = new StringBuilder(complaint.getImages().size() * 160);
+        for (ComplaintImage image : complaint.getImages()) {
+            images.append("<li><a href=\"");
+            CompiledTemplate.appendEscaped(images, image.getImageUrl());
+            images.append("\">");
+            CompiledTemplate.appendEscaped(images, image.getImageUrl());
+            images.append("</a></li>");
         }
+        return images.toString();
+    }
 
-        return template
-            .replace("{{COMPLAINT_REF}}", complaintRef)
-            .replace("{{TITLE}}", escapeHtml(complaint.getTitle()))
-            .replace("{{DESCRIPTION}}", escapeHtml(complaint.getDescription()))
-            .replace("{{AREA}}", escapeHtml(complaint.getArea()))
-            .replace("{{COMPLAINT_DATE}}", complaint.getComplaintDate().toString())
-            .replace("{{SEVERITY}}", complaint.getAiSeverity().name())
-            .replace("{{SLA_DUE_AT}}", complaint.getSlaDueAt() == null ? "TBD" : formatter.format(complaint.getSlaDueAt()))
-            .replace("{{ACK_URL}}", ackUrl)
-            .replace("{{IMAGE_LIST}}", images);
+    private CompiledTemplate template(String location, CompiledTemplate compiled) {
+        // Dev mode: pick up template edits without a restart.
+        return appProperties.getEmailTemplates().isReload() ? compile(location) : compiled;
+    }
+
+    private CompiledTemplate compile(String location) {
+        return CompiledTemplate.compile(loadTemplate(location), RAW_SLOTS);
     }
 
     private String loadTemplate(String location) {
@@ -51,11 +115,9 @@ public class EmailTemplateService {
         }
     }
 
-    private String escapeHtml(String value) {
-        return value == null ? "" : value
-            .replace("&", "&amp;")
-            .replace("<", "&lt;")
-            .replace(">", "&gt;")
-            .replace("\"", "&quot;");
+    private String nullToEmpty(String value) {
+        return value == null ? "" : value;
     }
+
+    public record DigestEntry(Complaint complaint, String complaintRef, String ackUrl) {}
 }
@@ -1,13 +1,29 @@
 package com.codex.scms.repository;
 
 import com.codex.scms.domain.entity.ComplaintEvent;
-import com.codex.scms.domain.enums.ComplaintEventType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 public interface ComplaintEventRepository extends JpaRepository<ComplaintEvent, UUID> {
     List<ComplaintEvent> findByComplaint_IdOrderByCreatedAtAsc(UUID complaintId);
-    boolean existsByComplaint_IdAndEventTypeAndMessageContaining(UUID complaintId, ComplaintEventType eventType, String messageFragment);
+
+    @Query("""
+        select e from ComplaintEvent e
+        where e.complaint.id = :complaintId
+        order by e.createdAt desc, e.id desc
+        """)
+    List<ComplaintEvent> findLatest(UUID complaintId, Pageable pageable);
+
+    @Query("""
+        select e from ComplaintEvent e
+        where e.complaint.id = :complaintId
+            and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id < :id))
+        order by e.createdAt desc, e.id desc
+        """)
+    List<ComplaintEvent> findLatestBefore(UUID complaintId, Instant createdAt, UUID id, Pageable pageable);
 }
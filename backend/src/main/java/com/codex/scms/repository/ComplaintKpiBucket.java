@@ -0,0 +1,16 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.enums.ComplaintSeverity;
+import com.codex.scms.domain.enums.ComplaintStatus;
+
+import java.util.UUID;
+
+/** Complaint count for one (status, severity, assigned department) combination, used to reconcile KPI counters. */
+public record ComplaintKpiBucket(
+    ComplaintStatus status,
+    ComplaintSeverity severity,
+    UUID departmentId,
+    long count,
+    long overdue
+) {
+}
@@ -0,0 +1,14 @@
+package com.codex.scms.repository;
+
+/** Dashboard counters computed in one aggregate pass over the complaints table. */
+public record ComplaintKpiCounts(
+    long total,
+    long newCount,
+    long pendingAssignment,
+    long open,
+    long assigned,
+    long resolved,
+    long closed,
+    long overdue
+) {
+}
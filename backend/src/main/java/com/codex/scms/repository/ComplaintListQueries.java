@@ -0,0 +1,19 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.entity.Complaint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/** List-page reads that project straight into {@link ComplaintListRow} instead of loading entities. */
+public interface ComplaintListQueries {
+
+    Page<ComplaintListRow> findListRows(Specification<Complaint> spec, Pageable pageable);
+
+    List<ComplaintListRow> findListRows(Specification<Complaint> spec, Sort sort);
+
+    List<ComplaintListRow> findListRows(Specification<Complaint> spec, Sort sort, int limit);
+}
@@ -0,0 +1,83 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.entity.Complaint;
+import com.codex.scms.domain.entity.Department;
+import com.codex.scms.domain.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class ComplaintListQueriesImpl implements ComplaintListQueries {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<ComplaintListRow> findListRows(Specification<Complaint> spec, Pageable pageable) {
+        TypedQuery<ComplaintListRow> query = rowQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ComplaintListRow> findListRows(Specification<Complaint> spec, Sort sort) {
+        return rowQuery(spec, sort).getResultList();
+    }
+
+    @Override
+    public List<ComplaintListRow> findListRows(Specification<Complaint> spec, Sort sort, int limit) {
+        return rowQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<ComplaintListRow> rowQuery(Specification<Complaint> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ComplaintListRow> query = cb.createQuery(ComplaintListRow.class);
+        Root<Complaint> root = query.from(Complaint.class);
+        Join<Complaint, User> student = root.join("student");
+        Join<Complaint, Department> department = root.join("assignedDepartment", JoinType.LEFT);
+        query.select(cb.construct(ComplaintListRow.class,
+            root.get("id"), root.get("title"), root.get("area"), root.get("complaintDate"),
+            root.get("aiSeverity"), root.get("status"), root.get("ackReceivedAt"), root.get("slaDueAt"),
+            root.get("createdAt"), department.get("id"), department.get("name"), department.get("authorityEmail"),
+            student.get("id"), student.get("name"), student.get("email")
+        ));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // An unsorted request keeps any ordering the specification applied (e.g. relevance).
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Complaint> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Complaint> root = query.from(Complaint.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.count(root)).orderBy(List.of());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,28 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.enums.ComplaintSeverity;
+import com.codex.scms.domain.enums.ComplaintStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/** Columns of a complaint list item with its student and assigned department, read in one joined select. */
+public record ComplaintListRow(
+    UUID id,
+    String title,
+    String area,
+    LocalDate complaintDate,
+    ComplaintSeverity aiSeverity,
+    ComplaintStatus status,
+    Instant ackReceivedAt,
+    Instant slaDueAt,
+    Instant createdAt,
+    UUID departmentId,
+    String departmentName,
+    String departmentEmail,
+    UUID studentId,
+    String studentName,
+    String studentEmail
+) {
+}
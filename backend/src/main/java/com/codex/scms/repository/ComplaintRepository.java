@@ -2,19 +2,43 @@ package com.codex.scms.repository;
 
 import com.codex.scms.domain.entity.Complaint;
 import com.codex.scms.domain.enums.ComplaintStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ComplaintRepository extends JpaRepository<Complaint, UUID>, JpaSpecificationExecutor<Complaint> {
+public interface ComplaintRepository extends JpaRepository<Complaint, UUID>, JpaSpecificationExecutor<Complaint>, ComplaintListQueries {
+
+    // Overdue mirrors ComplaintMapper.isOverdue.
+    String KPI_COUNTS = """
+        select new com.codex.scms.repository.ComplaintKpiCounts(
+            count(*),
+            count(*) filter (where c.status = com.codex.scms.domain.enums.ComplaintStatus.NEW),
+            count(*) filter (where c.status = com.codex.scms.domain.enums.ComplaintStatus.PENDING_ADMIN_ASSIGNMENT),
+            count(*) filter (where c.status not in (
+                com.codex.scms.domain.enums.ComplaintStatus.RESOLVED_BY_STUDENT,
+                com.codex.scms.domain.enums.ComplaintStatus.ESCALATED_TO_DIRECTOR,
+                com.codex.scms.domain.enums.ComplaintStatus.CLOSED)),
+            count(*) filter (where c.assignedDepartment.id is not null),
+            count(*) filter (where c.status in (
+                com.codex.scms.domain.enums.ComplaintStatus.RESOLVED_BY_STUDENT,
+                com.codex.scms.domain.enums.ComplaintStatus.CLOSED)),
+            count(*) filter (where c.status = com.codex.scms.domain.enums.ComplaintStatus.CLOSED),
+            count(*) filter (where c.status = com.codex.scms.domain.enums.ComplaintStatus.EMAIL_SENT
+                and c.ackReceivedAt is null and c.slaDueAt < :now))
+        from Complaint c
+        """;
 
     @EntityGraph(attributePaths = {
         "student", "aiDepartment", "assignedDepartment", "assignedByAdmin"
@@ -22,12 +46,88 @@ public interface ComplaintRepository extends JpaRepository<Complaint, UUID>, Jpa
     @Query("select distinct c from Complaint c where c.id = :id")
     Optional<Complaint> findWithDetailsById(UUID id);
 
+    @Query("select c.student.id from Complaint c where c.id = :id")
+    Optional<UUID> findStudentIdById(UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Complaint c where c.id = :id")
+    Optional<Complaint> findForUpdateById(UUID id);
+
+    @Query("select c.id from Complaint c where c.status = :status and c.createdAt < :before order by c.createdAt asc")
+    List<UUID> findIdsByStatusAndCreatedAtBefore(ComplaintStatus status, Instant before, Pageable pageable);
+
+    @Query("""
+        select new com.codex.scms.repository.ComplaintTrainingRow(
+            c.createdAt, c.title, c.description, c.area, c.aiSeverity, ad.id, d.id,
+            case when c.assignedByAdmin is not null then true else false end,
+            case when c.aiRawResponseJson is not null then true else false end)
+        from Complaint c left join c.aiDepartment ad left join c.assignedDepartment d
+        where c.createdAt > :after and c.createdAt <= :until
+        order by c.createdAt asc, c.id asc
+        """)
+    List<ComplaintTrainingRow> findTrainingRows(Instant after, Instant until, Pageable pageable);
+
+    /** Whether an admin relabelled, in {@code (trainedThrough, until]}, a complaint the model has already learned. */
+    @Query("""
+        select count(c) > 0 from Complaint c
+        where c.createdAt <= :trainedThrough and c.labelsUpdatedAt > :trainedThrough and c.labelsUpdatedAt <= :until
+        """)
+    boolean existsLabelCorrections(Instant trainedThrough, Instant until);
+
     @EntityGraph(attributePaths = {
         "student", "aiDepartment", "assignedDepartment", "assignedByAdmin"
     })
     Page<Complaint> findAllByStudent_Id(UUID studentId, Pageable pageable);
 
-    List<Complaint> findByStatusAndSlaDueAtBeforeAndAckReceivedAtIsNull(ComplaintStatus status, Instant now);
+    @Query("""
+        select new com.codex.scms.repository.SlaDeadlineRow(c.id, c.slaDueAt)
+        from Complaint c
+        where c.status = com.codex.scms.domain.enums.ComplaintStatus.EMAIL_SENT
+            and c.ackReceivedAt is null and c.overdueFlaggedAt is null and c.slaDueAt < :until
+        """)
+    List<SlaDeadlineRow> findPendingSlaDeadlines(Instant until);
+
+    /**
+     * Claims one chunk of newly overdue complaints in one hash partition of their ids, stamps them and writes
+     * their COMMENT events in a single statement. Rows another instance has claimed but not yet committed are
+     * skipped, and once committed they no longer match, so concurrent instances never flag a complaint twice.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        with claimed as (
+            select id from complaints
+            where status = 'EMAIL_SENT' and ack_received_at is null and overdue_flagged_at is null and sla_due_at < :now
+                and (hashtext(id::text) & 2147483647) % :partitions = :partition
+            order by sla_due_at
+            limit :limit
+            for update skip locked
+        ), flagged as (
+            update complaints c set overdue_flagged_at = :now, updated_at = :now
+            from claimed
+            where c.id = claimed.id
+            returning c.id, c.sla_due_at
+        )
+        insert into complaint_events (id, complaint_id, event_type, message, created_by, created_at)
+        select gen_random_uuid(), id, 'COMMENT',
+            :marker || ' (due=' || to_char(sla_due_at at time zone 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS"Z"') || ')',
+            'SYSTEM', :now
+        from flagged
+        """, nativeQuery = true)
+    int flagOverdue(Instant now, String marker, int partition, int partitions, int limit);
+
+    @Query(KPI_COUNTS + " where c.student.id = :studentId")
+    ComplaintKpiCounts findKpiCountsByStudent(UUID studentId, Instant now);
+
+    @Query("""
+        select new com.codex.scms.repository.ComplaintKpiBucket(
+            c.status, c.aiSeverity, c.assignedDepartment.id, count(*),
+            count(*) filter (where c.status = com.codex.scms.domain.enums.ComplaintStatus.EMAIL_SENT
+                and c.ackReceivedAt is null and c.slaDueAt < :now))
+        from Complaint c
+        group by c.status, c.aiSeverity, c.assignedDepartment.id
+        """)
+    List<ComplaintKpiBucket> countKpiBuckets(Instant now);
 
     long countByStatus(ComplaintStatus status);
 
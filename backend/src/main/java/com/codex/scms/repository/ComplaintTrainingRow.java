@@ -0,0 +1,20 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.enums.ComplaintSeverity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Text and labels of a complaint, as read for training the local classifier. */
+public record ComplaintTrainingRow(
+    Instant createdAt,
+    String title,
+    String description,
+    String area,
+    ComplaintSeverity aiSeverity,
+    UUID aiDepartmentId,
+    UUID assignedDepartmentId,
+    boolean adminAssigned,
+    boolean aiLabelled
+) {
+}
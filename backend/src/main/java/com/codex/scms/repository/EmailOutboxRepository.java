@@ -0,0 +1,40 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.entity.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+    // SKIP LOCKED lets several relay instances claim disjoint batches without waiting on each other.
+    @Query(value = """
+        select * from email_outbox
+        where status = 'PENDING' and digest = false and next_attempt_at <= :now
+        order by next_attempt_at
+        limit :limit
+        for update skip locked
+        """, nativeQuery = true)
+    List<EmailOutboxMessage> lockDue(Instant now, int limit);
+
+    // A department's digest is due once its oldest queued email waited a full window, or enough piled up.
+    @Query(value = """
+        select department_id from email_outbox
+        where status = 'PENDING' and digest = true and next_attempt_at <= :now
+        group by department_id
+        having min(created_at) <= :windowStart or count(*) >= :maxSize
+        """, nativeQuery = true)
+    List<UUID> findDepartmentsWithDueDigest(Instant now, Instant windowStart, int maxSize);
+
+    @Query(value = """
+        select * from email_outbox
+        where status = 'PENDING' and digest = true and department_id = :departmentId and next_attempt_at <= :now
+        order by created_at
+        limit :limit
+        for update skip locked
+        """, nativeQuery = true)
+    List<EmailOutboxMessage> lockDigest(UUID departmentId, Instant now, int limit);
+}
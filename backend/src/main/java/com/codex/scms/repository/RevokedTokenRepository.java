@@ -0,0 +1,27 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    boolean existsByJti(String jti);
+
+    @Query("select t.jti from RevokedToken t where t.expiresAt > :now")
+    List<String> findUnexpiredJtis(Instant now);
+
+    @Query("select t.jti from RevokedToken t where t.createdAt >= :since and t.expiresAt > :now")
+    List<String> findJtisRevokedSince(Instant since, Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,6 @@
+package com.codex.scms.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record SlaDeadlineRow(UUID complaintId, Instant slaDueAt) {}
@@ -0,0 +1,36 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.entity.StoredImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StoredImageRepository extends JpaRepository<StoredImage, UUID> {
+
+    @Query("select s.relativePath from StoredImage s where s.contentHash = :contentHash")
+    Optional<String> findRelativePathByContentHash(String contentHash);
+
+    /** Adds a reference, creating the row for first-time content; the row stays locked until the caller commits. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO stored_images (id, content_hash, relative_path, size_bytes, ref_count, created_at)
+        VALUES (gen_random_uuid(), :contentHash, :relativePath, :sizeBytes, 1, now())
+        ON CONFLICT (content_hash) DO UPDATE SET ref_count = stored_images.ref_count + 1
+        """, nativeQuery = true)
+    int acquire(String contentHash, String relativePath, long sizeBytes);
+
+    @Modifying
+    @Transactional
+    @Query("update StoredImage s set s.refCount = s.refCount - 1 where s.contentHash = :contentHash and s.refCount > 0")
+    int release(String contentHash);
+
+    @Modifying
+    @Transactional
+    @Query("delete from StoredImage s where s.contentHash = :contentHash and s.refCount = 0")
+    int deleteUnreferenced(String contentHash);
+}
@@ -0,0 +1,7 @@
+package com.codex.scms.repository;
+
+import com.codex.scms.domain.enums.UserRole;
+
+import java.time.Instant;
+
+public record UserAuthRow(String email, UserRole role, Instant tokensValidAfter) {}
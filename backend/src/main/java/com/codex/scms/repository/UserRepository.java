@@ -1,12 +1,23 @@
 package com.codex.scms.repository;
 
 import com.codex.scms.domain.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmailIgnoreCase(String email);
     boolean existsByEmailIgnoreCase(String email);
+
+    // Served by the trigram indexes on lower(name) and lower(email).
+    @Query("select u.id from User u where lower(u.name) like :pattern or lower(u.email) like :pattern")
+    List<UUID> findIdsByNameOrEmailLike(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("select new com.codex.scms.repository.UserAuthRow(u.email, u.role, u.tokensValidAfter) from User u where u.id = :id")
+    Optional<UserAuthRow> findAuthRowById(@Param("id") UUID id);
 }
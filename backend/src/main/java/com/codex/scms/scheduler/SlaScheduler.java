@@ -12,12 +12,15 @@ import org.springframework.stereotype.Component;
 public class SlaScheduler {
 
     private final ComplaintService complaintService;
+    private final SlaTimer slaTimer;
 
+    // Safety net behind SlaTimer: catches anything it missed and queues the deadlines coming up next.
     @Scheduled(cron = "${app.sla.scheduler-cron:0 0 * * * *}")
     public void flagOverdueComplaints() {
         int flagged = complaintService.flagOverdueComplaints();
         if (flagged > 0) {
             log.info("SLA scheduler flagged {} overdue complaints", flagged);
         }
+        slaTimer.reload();
     }
 }
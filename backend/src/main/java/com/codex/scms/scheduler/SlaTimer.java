@@ -0,0 +1,142 @@
+package com.codex.scms.scheduler;
+
+import com.codex.scms.complaint.ComplaintService;
+import com.codex.scms.complaint.SlaDeadlineChangedEvent;
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.repository.ComplaintRepository;
+import com.codex.scms.repository.SlaDeadlineRow;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flags SLA breaches when they happen instead of on the next scheduler run. Pending deadlines sit in a
+ * delay queue fed at startup, by the periodic scan and by committed deadline changes; a single thread wakes
+ * at the earliest one and runs the overdue flagging pass. Superseded or met deadlines stay queued but are
+ * ignored when they expire.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlaTimer {
+
+    private final ComplaintService complaintService;
+    private final ComplaintRepository complaintRepository;
+    private final AppProperties appProperties;
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    private final ConcurrentMap<UUID, Deadline> pending = new ConcurrentHashMap<>();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!appProperties.getSla().isTimerEnabled()) {
+            return;
+        }
+        reload();
+        Thread thread = new Thread(this::run, "sla-timer");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDeadlineChanged(SlaDeadlineChangedEvent event) {
+        if (event.slaDueAt() == null) {
+            pending.remove(event.complaintId());
+        } else {
+            schedule(event.complaintId(), event.slaDueAt());
+        }
+    }
+
+    /** Queues every unflagged deadline falling within the horizon; already known ones are left alone. */
+    public void reload() {
+        if (!appProperties.getSla().isTimerEnabled()) {
+            return;
+        }
+        Instant until = Instant.now().plusMillis(appProperties.getSla().getTimerHorizonMs());
+        for (SlaDeadlineRow row : complaintRepository.findPendingSlaDeadlines(until)) {
+            schedule(row.complaintId(), row.slaDueAt());
+        }
+    }
+
+    void schedule(UUID complaintId, Instant dueAt) {
+        Deadline deadline = new Deadline(complaintId, dueAt);
+        if (!deadline.equals(pending.put(complaintId, deadline))) {
+            queue.put(deadline);
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    /** Fires whatever has already expired without blocking. */
+    void fireDue() {
+        fire(queue.poll());
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                fire(queue.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void fire(Deadline first) {
+        boolean due = false;
+        // Deadlines expiring together are covered by one flagging pass.
+        for (Deadline next = first; next != null; next = queue.poll()) {
+            due |= pending.remove(next.complaintId(), next);
+        }
+        if (!due) {
+            return;
+        }
+        try {
+            int flagged = complaintService.flagOverdueComplaints();
+            if (flagged > 0) {
+                log.info("SLA timer flagged {} overdue complaints", flagged);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("SLA timer could not flag overdue complaints, the periodic scan will retry: {}", ex.getMessage());
+        }
+    }
+
+    record Deadline(UUID complaintId, Instant dueAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            // One extra millisecond so the flagging pass sees the deadline strictly in the past.
+            return unit.convert(dueAt.toEpochMilli() + 1 - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return dueAt.compareTo(((Deadline) other).dueAt);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.codex.scms.security;
 
 import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.enums.TokenRevocationReason;
+import com.codex.scms.domain.enums.UserRole;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -21,6 +24,7 @@ import java.util.UUID;
 public class JwtService {
 
     private final AppProperties appProperties;
+    private final TokenRevocationStore tokenRevocationStore;
     private SecretKey signingKey;
 
     @PostConstruct
@@ -32,6 +36,7 @@ public class JwtService {
         Instant now = Instant.now();
         Instant expiry = now.plus(appProperties.getJwt().getAccessTokenExpirationMinutes(), ChronoUnit.MINUTES);
         return Jwts.builder()
+            .id(UUID.randomUUID().toString())
             .subject(user.getEmail())
             .issuedAt(Date.from(now))
             .expiration(Date.from(expiry))
@@ -48,6 +53,7 @@ public class JwtService {
         Instant now = Instant.now();
         Instant expiry = now.plus(appProperties.getJwt().getAckTokenExpirationHours(), ChronoUnit.HOURS);
         return Jwts.builder()
+            .id(UUID.randomUUID().toString())
             .subject(complaintId.toString())
             .issuedAt(Date.from(now))
             .expiration(Date.from(expiry))
@@ -56,14 +62,37 @@ public class JwtService {
             .compact();
     }
 
+    /** Verifies signature and expiry, and rejects revoked tokens. */
     public Claims parseToken(String token) {
-        return Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token).getPayload();
+        Claims claims = Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token).getPayload();
+        if (tokenRevocationStore.isRevoked(claims.getId())) {
+            throw new JwtException("Token has been revoked");
+        }
+        return claims;
     }
 
-    public boolean isAccessTokenValid(String token, AuthenticatedUser user) {
+    /** Revokes a still valid token until it expires. */
+    public void revoke(String token, TokenRevocationReason reason) {
         Claims claims = parseToken(token);
-        return user.getEmail().equalsIgnoreCase(claims.getSubject())
-            && claims.getExpiration().after(new Date());
+        tokenRevocationStore.revoke(claims.getId(), claims.getExpiration().toInstant(), reason);
+    }
+
+    /** Verifies an access token once and builds the principal from its claims; expired tokens fail to parse. */
+    public AccessToken parseAccessToken(String token) {
+        Claims claims = parseToken(token);
+        Object uid = claims.get("uid");
+        Object role = claims.get("role");
+        if (uid == null || role == null || claims.getSubject() == null) {
+            throw new IllegalArgumentException("Not an access token");
+        }
+        AuthenticatedUser principal = new AuthenticatedUser(
+            UUID.fromString(uid.toString()),
+            String.valueOf(claims.get("name")),
+            claims.getSubject(),
+            null,
+            UserRole.valueOf(role.toString())
+        );
+        return new AccessToken(principal, claims.getIssuedAt().toInstant());
     }
 
     public UUID getUserId(String token) {
@@ -75,4 +104,6 @@ public class JwtService {
         Claims claims = parseToken(token);
         return "complaint_ack".equals(claims.get("type")) && complaintId.toString().equals(claims.getSubject());
     }
+
+    public record AccessToken(AuthenticatedUser principal, Instant issuedAt) {}
 }
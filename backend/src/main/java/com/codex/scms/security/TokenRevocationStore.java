@@ -0,0 +1,130 @@
+package com.codex.scms.security;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.entity.RevokedToken;
+import com.codex.scms.domain.enums.TokenRevocationReason;
+import com.codex.scms.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revoked token ids, persisted in {@code revoked_tokens} and fronted by a Bloom filter so the usual case, a
+ * token that was never revoked, is answered without touching the database. Filter hits are confirmed against
+ * a bounded cache of exact answers and then the table. The filter is rebuilt at startup and whenever expired
+ * rows are pruned, and picks up revocations made by other instances on every sync.
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore {
+
+    // Rows are stamped before their transaction commits, so each sync looks back a little further.
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final AppProperties appProperties;
+    private final LinkedHashMap<String, Boolean> exact = new LinkedHashMap<>(256, 0.75f, true);
+
+    private volatile BloomFilter filter;
+    private volatile Instant syncedThrough = Instant.EPOCH;
+
+    public TokenRevocationStore(RevokedTokenRepository revokedTokenRepository, AppProperties appProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.appProperties = appProperties;
+        this.filter = newFilter();
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        BloomFilter next = newFilter();
+        List<String> jtis = revokedTokenRepository.findUnexpiredJtis(now);
+        jtis.forEach(next::add);
+        filter = next;
+        exact.clear();
+        syncedThrough = now;
+        log.debug("Token revocation filter rebuilt with {} entries", jtis.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        synchronized (this) {
+            Boolean known = exact.get(jti);
+            if (known != null) {
+                return known;
+            }
+        }
+        boolean revoked = revokedTokenRepository.existsByJti(jti);
+        remember(jti, revoked);
+        return revoked;
+    }
+
+    /** Records the revocation; it takes effect in this instance once the surrounding transaction commits. */
+    @Transactional
+    public void revoke(String jti, Instant expiresAt, TokenRevocationReason reason) {
+        if (jti == null || !expiresAt.isAfter(Instant.now()) || revokedTokenRepository.existsByJti(jti)) {
+            return;
+        }
+        RevokedToken token = new RevokedToken();
+        token.setJti(jti);
+        token.setExpiresAt(expiresAt);
+        token.setReason(reason);
+        revokedTokenRepository.save(token);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(jti, true);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        Instant now = Instant.now();
+        for (String jti : revokedTokenRepository.findJtisRevokedSince(syncedThrough.minus(SYNC_OVERLAP), now)) {
+            remember(jti, true);
+        }
+        syncedThrough = now;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.prune-interval-ms:600000}")
+    public void prune() {
+        int removed = revokedTokenRepository.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.info("Pruned {} expired token revocations", removed);
+        }
+        // Bloom filters cannot forget, so expired ids are dropped by starting over.
+        rebuild();
+    }
+
+    private synchronized void remember(String jti, boolean revoked) {
+        if (revoked) {
+            filter.add(jti);
+        }
+        exact.put(jti, revoked);
+        int maxSize = appProperties.getJwt().getRevocation().getExactCacheSize();
+        Iterator<Map.Entry<String, Boolean>> eldest = exact.entrySet().iterator();
+        while (exact.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private BloomFilter newFilter() {
+        AppProperties.Revocation config = appProperties.getJwt().getRevocation();
+        return BloomFilter.create(config.getExpectedRevocations(), config.getFalsePositiveRate());
+    }
+}
@@ -0,0 +1,38 @@
+package com.codex.scms.security;
+
+import com.codex.scms.domain.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * JPA listener on {@link User}. Hibernate creates it through Spring while the entity manager factory is
+ * still being built, so the cache, which needs a repository, is only resolved when a user changes.
+ */
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<UserValidityCache> userValidityCacheProvider;
+
+    @PostUpdate
+    @PostRemove
+    void onUserChanged(User user) {
+        UUID userId = user.getId();
+        UserValidityCache userValidityCache = userValidityCacheProvider.getObject();
+        userValidityCache.invalidate(userId);
+        // Evict again after commit so a request that reloaded the old row in between is not served from it.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userValidityCache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.codex.scms.security;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.repository.UserAuthRow;
+import com.codex.scms.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Short-lived cache of each user's current email, role and token cutoff, so authenticating a request from its JWT claims
+ * does not query the users table every time. Entries expire after a TTL and are dropped as soon as the user
+ * row changes or is deleted.
+ */
+@Component
+public class UserValidityCache {
+
+    private final UserRepository userRepository;
+    private final AppProperties appProperties;
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    public UserValidityCache(UserRepository userRepository, AppProperties appProperties) {
+        this.userRepository = userRepository;
+        this.appProperties = appProperties;
+    }
+
+    /**
+     * True while the user still exists with the email and role the token was issued for, and the token was not
+     * issued before an admin revoked the user's tokens.
+     */
+    public boolean isValid(AuthenticatedUser principal, Instant issuedAt) {
+        Optional<UserAuthRow> current = lookup(principal.getId());
+        if (current.isEmpty()) {
+            return false;
+        }
+        UserAuthRow row = current.get();
+        return row.role() == principal.getRole()
+            && row.email().equalsIgnoreCase(principal.getEmail())
+            && (row.tokensValidAfter() == null || issuedAt.isAfter(row.tokensValidAfter()));
+    }
+
+    public synchronized void invalidate(UUID userId) {
+        entries.remove(userId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Optional<UserAuthRow> lookup(UUID userId) {
+        AppProperties.Jwt config = appProperties.getJwt();
+        if (config.getUserCacheTtlMs() == 0) {
+            return userRepository.findAuthRowById(userId);
+        }
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() > 0) {
+                return entry.row();
+            }
+        }
+        Optional<UserAuthRow> row = userRepository.findAuthRowById(userId);
+        synchronized (this) {
+            entries.put(userId, new Entry(row, System.nanoTime() + config.getUserCacheTtlMs() * 1_000_000L));
+            Iterator<Map.Entry<UUID, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > config.getUserCacheMaxSize() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return row;
+    }
+
+    private record Entry(Optional<UserAuthRow> row, long expiresAtNanos) {}
+}
@@ -2,37 +2,84 @@ package com.codex.scms.upload;
 
 import com.codex.scms.common.AppException;
 import com.codex.scms.config.AppProperties;
+import com.codex.scms.config.AsyncConfig;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ImgBbUploadService {
 
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final AppProperties appProperties;
+    private final LocalImageResolver localImageResolver;
+    private final LocalImageStore localImageStore;
+    private final TaskExecutor executor;
+
+    public ImgBbUploadService(
+        RestTemplate restTemplate,
+        ObjectMapper objectMapper,
+        AppProperties appProperties,
+        LocalImageResolver localImageResolver,
+        LocalImageStore localImageStore,
+        @Qualifier(AsyncConfig.IMAGE_UPLOAD_EXECUTOR) TaskExecutor executor
+    ) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.appProperties = appProperties;
+        this.localImageResolver = localImageResolver;
+        this.localImageStore = localImageStore;
+        this.executor = executor;
+    }
 
     public UploadDtos.UploadImagesResponse uploadImages(List<MultipartFile> files) {
         validateFiles(files);
-        List<UploadDtos.UploadedImage> uploaded = files.stream().map(this::uploadSingle).toList();
+        List<CompletableFuture<UploadDtos.UploadedImage>> uploads = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> uploadSingle(file), executor))
+                .toList();
+
+        // Wait for every upload, even after a failure, so nothing is still in flight when we clean up.
+        List<UploadDtos.UploadedImage> uploaded = new ArrayList<>(uploads.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<UploadDtos.UploadedImage> upload : uploads) {
+            try {
+                uploaded.add(upload.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (failure != null) {
+            uploaded.forEach(this::discard);
+            throw failure;
+        }
         return new UploadDtos.UploadImagesResponse(uploaded.stream().map(UploadDtos.UploadedImage::url).toList(),
                 uploaded);
     }
@@ -67,26 +114,21 @@ public class ImgBbUploadService {
 
         // Local Fallback if API key is not configured or left as default
         if (apiKey == null || apiKey.isEmpty() || apiKey.equals("replace-with-imgbb-api-key")) {
-            return saveLocally(file);
+            return localImageStore.store(file);
         }
 
         try {
-            String base64 = Base64.getEncoder().encodeToString(file.getBytes());
-
-            MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
-            body.add("key", apiKey);
-            body.add("image", base64);
-            if (appProperties.getImgbb().getExpirationSeconds() > 0) {
-                body.add("expiration", String.valueOf(appProperties.getImgbb().getExpirationSeconds()));
-            }
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(body, headers);
-
-            ResponseEntity<String> response = restTemplate.postForEntity(appProperties.getImgbb().getBaseUrl(), entity,
-                    String.class);
-            JsonNode root = objectMapper.readTree(response.getBody());
+            String responseBody = restTemplate.execute(appProperties.getImgbb().getBaseUrl(), HttpMethod.POST,
+                    request -> {
+                        request.getHeaders().setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+                        if (request instanceof StreamingHttpOutputMessage streaming) {
+                            streaming.setBody(out -> writeForm(file, apiKey, out));
+                        } else {
+                            writeForm(file, apiKey, request.getBody());
+                        }
+                    },
+                    response -> StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
+            JsonNode root = objectMapper.readTree(responseBody);
             if (!root.path("success").asBoolean(false)) {
                 throw new AppException(org.springframework.http.HttpStatus.BAD_GATEWAY, "imgbb upload failed");
             }
@@ -114,39 +156,74 @@ public class ImgBbUploadService {
         }
     }
 
-    private UploadDtos.UploadedImage saveLocally(MultipartFile file) {
-        try {
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
+    /**
+     * Writes the form body with the image read from the multipart temp file and Base64 encoded on the way out,
+     * so the file is never held in memory as a whole.
+     */
+    private void writeForm(MultipartFile file, String apiKey, OutputStream out) throws IOException {
+        StringBuilder fields = new StringBuilder("key=").append(URLEncoder.encode(apiKey, StandardCharsets.UTF_8));
+        if (appProperties.getImgbb().getExpirationSeconds() > 0) {
+            fields.append("&expiration=").append(appProperties.getImgbb().getExpirationSeconds());
+        }
+        fields.append("&image=");
+        out.write(fields.toString().getBytes(StandardCharsets.US_ASCII));
 
-            String fileName = java.util.UUID.randomUUID().toString() + extension;
-            java.nio.file.Path uploadDir = java.nio.file.Paths.get("uploads");
+        OutputStream image = Base64.getEncoder().wrap(new FormValueOutputStream(out));
+        try (InputStream in = file.getInputStream()) {
+            in.transferTo(image);
+        }
+        // Closing the encoder writes the padding; the request stream itself stays open.
+        image.close();
+    }
 
-            if (!java.nio.file.Files.exists(uploadDir)) {
-                java.nio.file.Files.createDirectories(uploadDir);
+    /** Best effort removal of an image that was uploaded for a request that failed as a whole. */
+    private void discard(UploadDtos.UploadedImage image) {
+        if (localImageResolver.isLocalUrl(image.url())) {
+            try {
+                localImageStore.release(image.deleteHash());
+            } catch (RuntimeException e) {
+                log.warn("Could not release local upload {}: {}", image.url(), e.getMessage());
             }
+            return;
+        }
+        // imgbb has no delete API; configure imgbb.expiration-seconds to have such images expire.
+        log.warn("Orphaned imgbb upload {} (delete hash {})", image.url(), image.deleteHash());
+    }
 
-            java.nio.file.Path filePath = uploadDir.resolve(fileName);
-            file.transferTo(filePath.toFile());
+    /** Percent-escapes the three Base64 characters that are not safe in a form value, without closing the target. */
+    private static final class FormValueOutputStream extends FilterOutputStream {
 
-            String backendUrl = appProperties.getPublicUrls().getBackendBaseUrl();
-            if (backendUrl == null || backendUrl.isBlank() || backendUrl.equals("http://localhost:8080")) {
-                backendUrl = "http://localhost:8080";
-            }
-            if (backendUrl.endsWith("/")) {
-                backendUrl = backendUrl.substring(0, backendUrl.length() - 1);
+        private FormValueOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '+' || b == '/' || b == '=') {
+                out.write('%');
+                out.write(HEX[(b >> 4) & 0xF]);
+                out.write(HEX[b & 0xF]);
+            } else {
+                out.write(b);
             }
+        }
 
-            String fileUrl = backendUrl + "/uploads/" + fileName;
-            return new UploadDtos.UploadedImage(fileUrl, fileName); // use fileName as deleteHash
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '+' || b[i] == '/' || b[i] == '=') {
+                    out.write(b, start, i - start);
+                    write(b[i]);
+                    start = i + 1;
+                }
+            }
+            out.write(b, start, off + len - start);
+        }
 
-        } catch (IOException e) {
-            log.error("Failed to save file locally", e);
-            throw new AppException(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to save file locally");
+        @Override
+        public void close() throws IOException {
+            flush();
         }
     }
 }
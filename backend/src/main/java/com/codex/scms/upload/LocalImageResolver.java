@@ -0,0 +1,142 @@
+package com.codex.scms.upload;
+
+import com.codex.scms.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maps our own {@code /uploads/...} URLs (images stored locally when imgbb is not configured) to files in
+ * the upload directory, so server-side readers such as AI classification don't loop back over HTTP.
+ */
+@Slf4j
+@Component
+public class LocalImageResolver {
+
+    private static final String UPLOADS_PATH = "/uploads/";
+    private static final String DEFAULT_BACKEND_URL = "http://localhost:8080";
+
+    private final AppProperties appProperties;
+    private final Path uploadDir;
+    // A stored file's bytes never change (content-addressed, or uniquely named before that), and a mapping stays
+    // readable after LocalImageStore deletes the file, so cached entries never go stale.
+    private final LinkedHashMap<String, ByteBuffer> readCache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    public LocalImageResolver(AppProperties appProperties) {
+        this.appProperties = appProperties;
+        this.uploadDir = Paths.get(appProperties.getUploads().getLocalDir()).toAbsolutePath().normalize();
+    }
+
+    public Path uploadDir() {
+        return uploadDir;
+    }
+
+    public String publicUrl(String relativePath) {
+        return backendBaseUrl() + UPLOADS_PATH + relativePath;
+    }
+
+    /**
+     * Resolves a path below the upload directory to a stored file; empty for paths that escape the directory or
+     * name a hidden entry such as the incoming area. Does not check that the file exists.
+     */
+    public Optional<Path> storedFile(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return Optional.empty();
+        }
+        for (String segment : relativePath.split("/")) {
+            if (segment.isEmpty() || segment.startsWith(".") || segment.contains("\\")) {
+                return Optional.empty();
+            }
+        }
+        Path file = uploadDir.resolve(relativePath).normalize();
+        return file.startsWith(uploadDir) ? Optional.of(file) : Optional.empty();
+    }
+
+    public boolean isLocalUrl(String url) {
+        return relativePath(url) != null;
+    }
+
+    /** Returns a read-only view of the stored file, or empty when it is missing, unreadable or larger than {@code maxBytes}. */
+    public Optional<ByteBuffer> read(String url, long maxBytes) {
+        String relative = relativePath(url);
+        if (relative == null) {
+            return Optional.empty();
+        }
+        ByteBuffer cached = cached(relative);
+        if (cached != null) {
+            return cached.remaining() > maxBytes ? Optional.empty() : Optional.of(cached.duplicate());
+        }
+
+        Path file = storedFile(relative).orElse(null);
+        if (file == null || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0 || size > maxBytes) {
+                return Optional.empty();
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+            remember(relative, mapped);
+            return Optional.of(mapped.duplicate());
+        } catch (IOException ex) {
+            log.info("Could not read local upload {}: {}", file, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String relativePath(String url) {
+        if (url == null) {
+            return null;
+        }
+        String prefix = backendBaseUrl() + UPLOADS_PATH;
+        String relative = null;
+        if (url.startsWith(prefix)) {
+            relative = url.substring(prefix.length());
+        } else if (url.startsWith(DEFAULT_BACKEND_URL + UPLOADS_PATH)) {
+            relative = url.substring(DEFAULT_BACKEND_URL.length() + UPLOADS_PATH.length());
+        }
+        if (relative == null || relative.isBlank() || relative.contains("?") || relative.contains("#")) {
+            return null;
+        }
+        return relative;
+    }
+
+    private String backendBaseUrl() {
+        String backendUrl = appProperties.getPublicUrls().getBackendBaseUrl();
+        if (backendUrl == null || backendUrl.isBlank()) {
+            backendUrl = DEFAULT_BACKEND_URL;
+        }
+        return backendUrl.endsWith("/") ? backendUrl.substring(0, backendUrl.length() - 1) : backendUrl;
+    }
+
+    private synchronized ByteBuffer cached(String relative) {
+        return readCache.get(relative);
+    }
+
+    private synchronized void remember(String relative, ByteBuffer data) {
+        long budget = appProperties.getUploads().getAiReadCacheBytes();
+        if (data.remaining() > budget) {
+            return;
+        }
+        ByteBuffer previous = readCache.put(relative, data);
+        cachedBytes += data.remaining() - (previous == null ? 0 : previous.remaining());
+        Iterator<Map.Entry<String, ByteBuffer>> eldest = readCache.entrySet().iterator();
+        while (cachedBytes > budget && eldest.hasNext()) {
+            cachedBytes -= eldest.next().getValue().remaining();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.codex.scms.upload;
+
+import com.codex.scms.common.AppException;
+import com.codex.scms.repository.StoredImageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage for uploads kept on local disk. Files are named by the SHA-256 of their bytes and
+ * sharded as {@code ab/cd/<hash>.<ext>}; uploads of the same content share one file, tracked by a reference count
+ * in {@code stored_images}. File placement and removal happen while the image row is locked.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalImageStore {
+
+    private static final String INCOMING_DIR = ".incoming";
+    private static final Pattern STORED_PATH = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})(\\.[a-z]+)?");
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "image/jpeg", ".jpg",
+        "image/png", ".png",
+        "image/webp", ".webp"
+    );
+
+    private final StoredImageRepository storedImageRepository;
+    private final LocalImageResolver localImageResolver;
+
+    @Transactional
+    public UploadDtos.UploadedImage store(MultipartFile file) {
+        Path incoming = null;
+        try {
+            Path incomingDir = Files.createDirectories(localImageResolver.uploadDir().resolve(INCOMING_DIR));
+            incoming = Files.createTempFile(incomingDir, "upload-", ".part");
+
+            // Hash while copying out of the multipart part, so the bytes are read once.
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, incoming, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String extension = EXTENSIONS.getOrDefault(file.getContentType(), "");
+
+            storedImageRepository.acquire(hash, shardedPath(hash, extension), size);
+            String relativePath = storedImageRepository.findRelativePathByContentHash(hash)
+                .orElseThrow(() -> new IllegalStateException("Stored image row missing for " + hash));
+            Path target = localImageResolver.uploadDir().resolve(relativePath);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(incoming, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ignored) {
+                    // Left behind by a rolled back upload of the same content; it holds the same bytes.
+                }
+            }
+            return new UploadDtos.UploadedImage(localImageResolver.publicUrl(relativePath), relativePath);
+        } catch (IOException e) {
+            log.error("Failed to save file locally", e);
+            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save file locally");
+        } finally {
+            deleteQuietly(incoming);
+        }
+    }
+
+    /** Drops one reference to a stored image and deletes the file once nothing refers to it. */
+    @Transactional
+    public void release(String relativePath) {
+        var matcher = relativePath == null ? null : STORED_PATH.matcher(relativePath);
+        if (matcher == null || !matcher.matches()) {
+            // Uploads from before content addressing have a file of their own.
+            deleteLegacy(relativePath);
+            return;
+        }
+        String hash = matcher.group(1);
+        if (storedImageRepository.release(hash) == 0 || storedImageRepository.deleteUnreferenced(hash) == 0) {
+            return;
+        }
+        deleteQuietly(localImageResolver.uploadDir().resolve(relativePath));
+    }
+
+    static String shardedPath(String hash, String extension) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+    }
+
+    private void deleteLegacy(String fileName) {
+        if (fileName == null || fileName.isBlank() || fileName.contains("/") || fileName.contains("\\")) {
+            return;
+        }
+        deleteQuietly(localImageResolver.uploadDir().resolve(fileName));
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not remove {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
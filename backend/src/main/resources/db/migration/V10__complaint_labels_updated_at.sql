@@ -0,0 +1,3 @@
+ALTER TABLE complaints ADD COLUMN labels_updated_at TIMESTAMPTZ NULL;
+
+CREATE INDEX idx_complaints_labels_updated_at ON complaints(labels_updated_at);
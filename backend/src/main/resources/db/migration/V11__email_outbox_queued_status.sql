@@ -0,0 +1 @@
+ALTER TABLE email_outbox ADD COLUMN queued_status VARCHAR(50) NULL;
@@ -0,0 +1,16 @@
+CREATE TABLE email_outbox (
+    id UUID PRIMARY KEY,
+    complaint_id UUID NOT NULL REFERENCES complaints(id) ON DELETE CASCADE,
+    department_id UUID NOT NULL,
+    requested_by VARCHAR(20) NOT NULL,
+    resend BOOLEAN NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL,
+    next_attempt_at TIMESTAMPTZ NOT NULL,
+    last_error TEXT,
+    sent_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox(status, next_attempt_at);
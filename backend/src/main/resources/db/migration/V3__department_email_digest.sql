@@ -0,0 +1,5 @@
+ALTER TABLE departments ADD COLUMN email_digest_enabled BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE email_outbox ADD COLUMN digest BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_email_outbox_digest ON email_outbox(department_id, created_at);
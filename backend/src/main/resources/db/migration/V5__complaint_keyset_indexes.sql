@@ -0,0 +1,2 @@
+CREATE INDEX idx_complaints_created_at_id ON complaints(created_at, id);
+CREATE INDEX idx_complaints_student_created_at_id ON complaints(student_id, created_at, id);
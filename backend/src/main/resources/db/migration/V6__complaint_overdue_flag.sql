@@ -0,0 +1,14 @@
+ALTER TABLE complaints ADD COLUMN overdue_flagged_at TIMESTAMPTZ;
+
+UPDATE complaints c
+SET overdue_flagged_at = e.flagged_at
+FROM (
+    SELECT complaint_id, MIN(created_at) AS flagged_at
+    FROM complaint_events
+    WHERE event_type = 'COMMENT' AND message LIKE 'SLA overdue flagged by scheduler%'
+    GROUP BY complaint_id
+) e
+WHERE e.complaint_id = c.id;
+
+CREATE INDEX idx_complaints_sla_unflagged ON complaints(sla_due_at)
+    WHERE status = 'EMAIL_SENT' AND ack_received_at IS NULL AND overdue_flagged_at IS NULL;
@@ -0,0 +1 @@
+CREATE INDEX idx_complaint_events_complaint_created_at_id ON complaint_events(complaint_id, created_at, id);
@@ -0,0 +1,12 @@
+CREATE TABLE revoked_tokens (
+    id UUID PRIMARY KEY,
+    jti VARCHAR(64) NOT NULL UNIQUE,
+    expires_at TIMESTAMPTZ NOT NULL,
+    reason VARCHAR(20) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+CREATE INDEX idx_revoked_tokens_created_at ON revoked_tokens(created_at);
+
+ALTER TABLE users ADD COLUMN tokens_valid_after TIMESTAMPTZ;
@@ -0,0 +1,8 @@
+CREATE TABLE stored_images (
+    id UUID PRIMARY KEY,
+    content_hash VARCHAR(64) NOT NULL UNIQUE,
+    relative_path VARCHAR(100) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count INT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL
+);
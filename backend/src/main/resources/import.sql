@@ -0,0 +1,6 @@
+-- Run by Hibernate after ddl-auto=create builds the schema; mirrors the indexes of db/migration/V4__complaint_search.sql and V6__complaint_overdue_flag.sql.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_complaints_search_vector ON complaints USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING GIN (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_complaints_sla_unflagged ON complaints(sla_due_at) WHERE status = 'EMAIL_SENT' AND ack_received_at IS NULL AND overdue_flagged_at IS NULL;
@@ -0,0 +1,50 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AiClassificationBatcherTest {
+
+    @Mock private AiClassificationService aiClassificationService;
+
+    @Test
+    void classify_shouldFailTheBatchInsteadOfCallingGeminiOnTheTimerWhenSaturated() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAi().getBatch().setEnabled(true);
+        appProperties.getAi().getBatch().setWindowMs(10);
+        TaskExecutor saturated = task -> {
+            throw new TaskRejectedException("queue full");
+        };
+        when(aiClassificationService.routeLocally(any(), any(), any())).thenReturn(Optional.empty());
+        AiClassificationBatcher batcher = new AiClassificationBatcher(aiClassificationService,
+            new ClassificationCache(appProperties, new SimpleMeterRegistry()), appProperties, saturated);
+
+        CompletableFuture<AiClassificationService.AiClassificationResult> result = batcher.classify(
+            new AiClassificationService.AiClassificationRequest(UUID.randomUUID(), "No water", "Tank empty",
+                "Hostel B", LocalDate.now(), List.of()));
+
+        assertThat(result).failsWithin(5, TimeUnit.SECONDS);
+        verify(aiClassificationService, never()).classifyBatch(anyList());
+    }
+}
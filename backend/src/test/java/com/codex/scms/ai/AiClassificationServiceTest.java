@@ -1,73 +1,82 @@
 package com.codex.scms.ai;
 
 import com.codex.scms.config.AppProperties;
+import com.codex.scms.department.DepartmentIndex;
 import com.codex.scms.domain.entity.Department;
 import com.codex.scms.domain.enums.ComplaintSeverity;
 import com.codex.scms.repository.DepartmentRepository;
+import com.codex.scms.upload.LocalImageResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AiClassificationServiceTest {
 
     @Mock
-    private RestTemplate restTemplate;
+    private GeminiClient geminiClient;
     @Mock
     private DepartmentRepository departmentRepository;
+    @Mock
+    private LocalImageResolver localImageResolver;
+    @Mock
+    private LocalComplaintClassifier localClassifier;
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
     private AiClassificationService aiClassificationService;
+    private Department electrical;
 
     @BeforeEach
     void setUp() {
-        AppProperties props = new AppProperties();
-        props.getAi().setBaseUrl("http://localhost:9000");
-        props.getAi().setEndpoint("/classify");
-        props.getAi().setTimeoutMs(2000);
-        aiClassificationService = new AiClassificationService(restTemplate, new ObjectMapper(), props, departmentRepository);
+        electrical = new Department();
+        electrical.setName("Electrical");
+        when(departmentRepository.findAll()).thenReturn(List.of(electrical));
+        DepartmentIndex departmentIndex = new DepartmentIndex(departmentRepository);
+        departmentIndex.rebuild();
+        AppProperties appProperties = new AppProperties();
+        ClassificationCache cache = new ClassificationCache(appProperties, new SimpleMeterRegistry());
+        aiClassificationService = new AiClassificationService(geminiClient, objectMapper, departmentIndex, cache,
+            localImageResolver, localClassifier, appProperties);
     }
 
     @Test
-    void classify_shouldParseSeverityAndDepartmentSuggestion() {
-        Department dept = new Department();
-        dept.setName("Electrical");
-        when(restTemplate.postForEntity(eq("http://localhost:9000/classify"), any(), eq(String.class)))
-            .thenReturn(new ResponseEntity<>("{\"severity\":\"HIGH\",\"departmentSuggestion\":\"Electrical\"}", HttpStatus.OK));
-        when(departmentRepository.findByNameIgnoreCase("Electrical")).thenReturn(Optional.of(dept));
+    void classify_shouldParseSeverityAndDepartmentSuggestion() throws Exception {
+        when(geminiClient.generateContent(any(GeminiRequestBody.class)))
+            .thenReturn(geminiResponse("{\"severity\":\"HIGH\",\"departmentSuggestion\":\"Electrical\"}"));
 
         AiClassificationService.AiClassificationResult result = aiClassificationService.classify(
             "Power outage",
             "No electricity in hostel block",
             "Hostel A",
             LocalDate.now(),
-            List.of("https://img.example/1.png")
+            List.of("gs://bucket/1.png")
         );
 
         assertThat(result.severity()).isEqualTo(ComplaintSeverity.HIGH);
-        assertThat(result.suggestedDepartment()).isEqualTo(dept);
+        assertThat(result.suggestedDepartment()).isEqualTo(electrical);
         assertThat(result.fallbackUsed()).isFalse();
         assertThat(result.rawResponseJson()).contains("HIGH");
     }
 
     @Test
-    void classify_shouldFallbackToMediumWhenAiCallFails() {
-        when(restTemplate.postForEntity(any(String.class), any(), eq(String.class)))
-            .thenThrow(new RuntimeException("timeout"));
+    void classify_shouldFallbackToMediumWhenAiCallFails() throws Exception {
+        when(geminiClient.generateContent(any(GeminiRequestBody.class))).thenThrow(new RuntimeException("timeout"));
 
         AiClassificationService.AiClassificationResult result = aiClassificationService.classify(
             "Issue",
@@ -82,4 +91,51 @@ class AiClassificationServiceTest {
         assertThat(result.fallbackUsed()).isTrue();
         assertThat(result.errorMessage()).contains("timeout");
     }
+
+    @Test
+    void classifyBatch_shouldFanOutByIdAndRetryMissingItemsSingly() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(geminiClient.isConfigured()).thenReturn(true);
+        when(geminiClient.generateContent(any(GeminiRequestBody.class)))
+            .thenReturn(geminiResponse("[{\"id\":\"" + first + "\",\"department\":null,\"criticality\":\"Critical\"}]"))
+            .thenReturn(geminiResponse("{\"department\":null,\"criticality\":\"Low\"}"));
+
+        Map<UUID, AiClassificationService.AiClassificationResult> results = aiClassificationService.classifyBatch(List.of(
+            request(first, "Snake in corridor"),
+            request(second, "Light flickering")
+        ));
+
+        assertThat(results.get(first).severity()).isEqualTo(ComplaintSeverity.CRITICAL);
+        assertThat(results.get(second).severity()).isEqualTo(ComplaintSeverity.LOW);
+        verify(geminiClient, times(2)).generateContent(any());
+    }
+
+    @Test
+    void classifyBatch_shouldLeaveComplaintsOutInsteadOfFallingBackWhenGeminiIsSaturated() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(geminiClient.isConfigured()).thenReturn(true);
+        when(geminiClient.generateContent(any(GeminiRequestBody.class)))
+            .thenReturn(geminiResponse("[{\"id\":\"" + first + "\",\"department\":null,\"criticality\":\"Critical\"}]"))
+            .thenThrow(new GeminiSaturatedException("Gemini concurrency limit reached (1)"));
+
+        Map<UUID, AiClassificationService.AiClassificationResult> results = aiClassificationService.classifyBatch(List.of(
+            request(first, "Snake in corridor"),
+            request(second, "Light flickering")
+        ));
+
+        assertThat(results).containsOnlyKeys(first);
+        verify(localClassifier, never()).predict(any(), any(), any());
+    }
+
+    private AiClassificationService.AiClassificationRequest request(UUID id, String title) {
+        return new AiClassificationService.AiClassificationRequest(id, title, "desc", "Hostel A", LocalDate.now(), List.of());
+    }
+
+    private String geminiResponse(String modelText) throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+            "candidates", List.of(Map.of("content", Map.of("parts", List.of(Map.of("text", modelText)))))
+        ));
+    }
 }
@@ -0,0 +1,76 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.enums.ComplaintSeverity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassificationCacheTest {
+
+    private AppProperties props;
+    private SimpleMeterRegistry meterRegistry;
+    private ClassificationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        props = new AppProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ClassificationCache(props, meterRegistry);
+    }
+
+    @Test
+    void keyFor_shouldIgnoreCaseWhitespaceAndImageOrder() {
+        String a = ClassificationCache.keyFor("No  Water", "Hostel B tank\\nempty", "Block B", List.of("u2", "u1"));
+        String b = ClassificationCache.keyFor("no water ", "hostel b  tank\\nempty", " block b", List.of("u1", "u2"));
+
+        assertThat(a).isEqualTo(b);
+        assertThat(a).isNotEqualTo(ClassificationCache.keyFor("no water", "hostel b tank", "block c", List.of()));
+    }
+
+    @Test
+    void getOrLoad_shouldCollapseConcurrentRequestsAndServeHitsAfterwards() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<AiClassificationService.AiClassificationResult> upstream = new CompletableFuture<>();
+
+        CompletableFuture<AiClassificationService.AiClassificationResult> first = cache.getOrLoad("k", () -> {
+            loads.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<AiClassificationService.AiClassificationResult> second = cache.getOrLoad("k", () -> {
+            loads.incrementAndGet();
+            return upstream;
+        });
+        upstream.complete(result(false));
+
+        assertThat(first.join()).isSameAs(second.join());
+        assertThat(cache.getOrLoad("k", () -> CompletableFuture.failedFuture(new AssertionError("not cached"))).join())
+            .isSameAs(first.join());
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("scms.ai.cache.requests").tag("result", "coalesced").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("scms.ai.cache.requests").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getOrLoad_shouldNotCacheFallbacksAndEvictBeyondCapacity() {
+        props.getAi().getCache().setMaxEntries(1);
+
+        cache.getOrLoad("fallback", () -> CompletableFuture.completedFuture(result(true))).join();
+        assertThat(cache.size()).isZero();
+
+        cache.getOrLoad("a", () -> CompletableFuture.completedFuture(result(false))).join();
+        cache.getOrLoad("b", () -> CompletableFuture.completedFuture(result(false))).join();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("scms.ai.cache.evictions").tag("cause", "size").functionCounter().count()).isEqualTo(1);
+    }
+
+    private AiClassificationService.AiClassificationResult result(boolean fallback) {
+        return new AiClassificationService.AiClassificationResult(ComplaintSeverity.HIGH, null, "{}", fallback, null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiGuardTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private AppProperties appProperties;
+    private GeminiGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getAi().setTimeoutMs(50);
+        AppProperties.Guard config = appProperties.getAi().getGuard();
+        config.setWindowSize(4);
+        config.setMinimumCalls(4);
+        config.setHalfOpenProbes(1);
+        config.setInitialLimit(2);
+        guard = new GeminiGuard(appProperties, new SimpleMeterRegistry(), clock::get);
+    }
+
+    @Test
+    void breaker_shouldOpenOnFailuresAndCloseAfterSuccessfulProbe() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            guard.acquire().release(i % 2 == 0);
+        }
+        assertThat(guard.state()).isEqualTo(GeminiGuard.State.OPEN);
+        assertThatThrownBy(guard::acquire).isInstanceOf(GeminiUnavailableException.class);
+
+        clock.addAndGet(appProperties.getAi().getGuard().getOpenDurationMs() * 1_000_000L);
+        GeminiGuard.Permit probe = guard.acquire();
+        assertThat(guard.state()).isEqualTo(GeminiGuard.State.HALF_OPEN);
+        assertThatThrownBy(guard::acquire).isInstanceOf(GeminiUnavailableException.class);
+
+        probe.release(false);
+        assertThat(guard.state()).isEqualTo(GeminiGuard.State.CLOSED);
+    }
+
+    @Test
+    void limit_shouldRejectExcessCallsAndShrinkOnSlowCalls() throws InterruptedException {
+        GeminiGuard.Permit first = guard.acquire();
+        GeminiGuard.Permit second = guard.acquire();
+        assertThatThrownBy(guard::acquire)
+            .isInstanceOf(GeminiSaturatedException.class)
+            .hasMessageContaining("concurrency limit");
+
+        clock.addAndGet(appProperties.getAi().getGuard().getSlowCallMs() * 1_000_000L);
+        first.release(false);
+        second.release(false);
+        assertThat(guard.limit()).isEqualTo(1.0);
+
+        guard.acquire().release(false);
+        assertThat(guard.limit()).isEqualTo(2.0);
+    }
+
+    @Test
+    void limit_shouldHandAFreedPermitToAWaitingCall() throws Exception {
+        appProperties.getAi().setTimeoutMs(5000);
+        GeminiGuard.Permit first = guard.acquire();
+        guard.acquire();
+        CompletableFuture<GeminiGuard.Permit> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return guard.acquire();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+
+        first.release(false);
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(guard.inFlight()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,70 @@
+package com.codex.scms.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiRequestBodyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void publisher_shouldStreamValidJsonWithBase64InlineData() throws Exception {
+        byte[] image = new byte[200_001];
+        new Random(7).nextBytes(image);
+        GeminiRequestBody body = new GeminiRequestBody(objectMapper)
+            .addText("Classify \"this\" – please")
+            .addInlineData("image/png", ByteBuffer.wrap(image))
+            .addFileData("image/jpeg", "gs://bucket/a.jpg");
+
+        byte[] written = drain(body);
+        JsonNode parts = objectMapper.readTree(written).path("contents").get(0).path("parts");
+
+        assertThat(written).hasSize((int) body.contentLength());
+        assertThat(parts).hasSize(3);
+        assertThat(parts.get(0).path("text").asText()).isEqualTo("Classify \"this\" – please");
+        assertThat(Base64.getDecoder().decode(parts.get(1).path("inline_data").path("data").asText())).isEqualTo(image);
+        assertThat(parts.get(2).path("file_data").path("file_uri").asText()).isEqualTo("gs://bucket/a.jpg");
+        // Re-subscribing (e.g. on a retried request) must replay the same bytes.
+        assertThat(drain(body)).isEqualTo(written);
+    }
+
+    private byte[] drain(GeminiRequestBody body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        body.publisher().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                out.writeBytes(chunk);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        done.join();
+        return out.toByteArray();
+    }
+}
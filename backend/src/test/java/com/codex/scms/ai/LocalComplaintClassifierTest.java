@@ -0,0 +1,103 @@
+package com.codex.scms.ai;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.enums.ComplaintSeverity;
+import com.codex.scms.repository.ComplaintRepository;
+import com.codex.scms.repository.ComplaintTrainingRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LocalComplaintClassifierTest {
+
+    @Mock
+    private ComplaintRepository complaintRepository;
+
+    @Test
+    void retrain_shouldLearnFromAiAndAdminLabelsButNotFromFallbacks() {
+        UUID electrical = UUID.randomUUID();
+        UUID plumbing = UUID.randomUUID();
+        List<ComplaintTrainingRow> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(row("Power outage in room " + i, "No electricity since morning, fan not working",
+                ComplaintSeverity.HIGH, electrical, null, false, true));
+            rows.add(row("Tap leaking " + i, "Water leaking from the bathroom tap and pipe",
+                ComplaintSeverity.MEDIUM, null, plumbing, true, false));
+            // Fallback result: neither AI-labelled nor admin-assigned, must be ignored.
+            rows.add(row("Power outage again " + i, "No electricity", ComplaintSeverity.LOW, plumbing, null, false, false));
+        }
+        when(complaintRepository.findTrainingRows(any(), any(), any())).thenReturn(rows);
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAi().getLocalModel().setMinSamples(5);
+        appProperties.getAi().getLocalModel().setPath("target/test-local-model/model.json");
+        LocalComplaintClassifier classifier = new LocalComplaintClassifier(
+            complaintRepository, appProperties, new ObjectMapper().findAndRegisterModules());
+        classifier.retrain();
+
+        LocalComplaintClassifier.LocalPrediction prediction =
+            classifier.predict("Power outage", "electricity gone in block B", "Hostel A").orElseThrow();
+        assertThat(prediction.severity()).isEqualTo(ComplaintSeverity.HIGH);
+        assertThat(prediction.departmentId()).isEqualTo(electrical);
+        assertThat(prediction.departmentConfidence()).isGreaterThan(0.9);
+
+        LocalComplaintClassifier reloaded = new LocalComplaintClassifier(
+            complaintRepository, appProperties, new ObjectMapper().findAndRegisterModules());
+        reloaded.loadModel();
+        assertThat(reloaded.predict("Leaking tap", "water pipe", "Hostel B").orElseThrow().departmentId())
+            .isEqualTo(plumbing);
+    }
+
+    @Test
+    void retrain_shouldRebuildWhenAnAdminRelabelsLearnedComplaints() {
+        UUID electrical = UUID.randomUUID();
+        UUID maintenance = UUID.randomUUID();
+        List<ComplaintTrainingRow> learned = new ArrayList<>();
+        List<ComplaintTrainingRow> corrected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            learned.add(row("Fan broken " + i, "Ceiling fan stopped working", ComplaintSeverity.MEDIUM, electrical, null, false, true));
+            // Admin later reassigned the same complaints to maintenance.
+            corrected.add(row("Fan broken " + i, "Ceiling fan stopped working", ComplaintSeverity.MEDIUM, electrical, maintenance, true, true));
+        }
+        when(complaintRepository.findTrainingRows(any(), any(), any())).thenReturn(learned).thenReturn(corrected);
+        when(complaintRepository.existsLabelCorrections(any(), any())).thenReturn(true);
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAi().getLocalModel().setMinSamples(5);
+        appProperties.getAi().getLocalModel().setPath("target/test-local-model/relabel-model.json");
+        LocalComplaintClassifier classifier = new LocalComplaintClassifier(
+            complaintRepository, appProperties, new ObjectMapper().findAndRegisterModules());
+        classifier.retrain();
+        assertThat(classifier.predict("Fan broken", "fan not working", "Hostel").orElseThrow().departmentId())
+            .isEqualTo(electrical);
+
+        classifier.retrain();
+
+        LocalComplaintClassifier.LocalPrediction prediction =
+            classifier.predict("Fan broken", "fan not working", "Hostel").orElseThrow();
+        assertThat(prediction.departmentId()).isEqualTo(maintenance);
+        assertThat(prediction.departmentConfidence()).isGreaterThan(0.9);
+        verify(complaintRepository, times(2)).findTrainingRows(eq(Instant.EPOCH), any(), any());
+    }
+
+    private ComplaintTrainingRow row(String title, String description, ComplaintSeverity severity, UUID aiDepartment,
+                                     UUID assignedDepartment, boolean adminAssigned, boolean aiLabelled) {
+        return new ComplaintTrainingRow(Instant.now().minusSeconds(3 * 24 * 3600), title, description, "Hostel",
+            severity, aiDepartment, assignedDepartment, adminAssigned, aiLabelled);
+    }
+}
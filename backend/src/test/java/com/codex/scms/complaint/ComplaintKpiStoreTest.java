@@ -0,0 +1,63 @@
+package com.codex.scms.complaint;
+
+import com.codex.scms.domain.enums.ComplaintSeverity;
+import com.codex.scms.domain.enums.ComplaintStatus;
+import com.codex.scms.repository.ComplaintKpiBucket;
+import com.codex.scms.repository.ComplaintRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ComplaintKpiStoreTest {
+
+    @Mock private ComplaintRepository complaintRepository;
+
+    @Test
+    void transitionsUpdateCountersAndReconciliationReportsDrift() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ComplaintKpiStore store = new ComplaintKpiStore(complaintRepository, registry);
+        UUID department = UUID.randomUUID();
+        when(complaintRepository.countKpiBuckets(any(Instant.class))).thenReturn(
+            List.of(new ComplaintKpiBucket(ComplaintStatus.NEW, ComplaintSeverity.MEDIUM, null, 2, 0)),
+            List.of(
+                new ComplaintKpiBucket(ComplaintStatus.NEW, ComplaintSeverity.MEDIUM, null, 1, 0),
+                new ComplaintKpiBucket(ComplaintStatus.EMAIL_SENT, ComplaintSeverity.HIGH, department, 2, 1)
+            )
+        );
+
+        store.reconcile();
+        store.onKpiChanged(new ComplaintKpiChangedEvent(
+            new ComplaintKpiStore.Bucket(ComplaintStatus.NEW, ComplaintSeverity.MEDIUM, null),
+            new ComplaintKpiStore.Bucket(ComplaintStatus.EMAIL_SENT, ComplaintSeverity.HIGH, department)));
+
+        ComplaintKpiStore.Snapshot snapshot = store.snapshot();
+        assertThat(snapshot.total()).isEqualTo(2);
+        assertThat(snapshot.count(ComplaintStatus.NEW)).isEqualTo(1);
+        assertThat(snapshot.count(ComplaintStatus.EMAIL_SENT)).isEqualTo(1);
+        assertThat(snapshot.byDepartment()).containsEntry(department, 1L);
+        verify(complaintRepository, times(1)).countKpiBuckets(any());
+
+        // A second complaint reached EMAIL_SENT without its event being seen.
+        store.reconcile();
+
+        snapshot = store.snapshot();
+        assertThat(snapshot.total()).isEqualTo(3);
+        assertThat(snapshot.count(ComplaintStatus.EMAIL_SENT)).isEqualTo(2);
+        assertThat(snapshot.overdue()).isEqualTo(1);
+        // total +1, EMAIL_SENT +1, HIGH +1, department +1
+        assertThat(registry.get("scms.kpi.reconcile.drift").gauge().value()).isEqualTo(4.0);
+    }
+}
@@ -0,0 +1,30 @@
+package com.codex.scms.complaint;
+
+import com.codex.scms.common.AppException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ComplaintSpecificationsTest {
+
+    @Test
+    void toPrefixTsQuery_shouldAndPrefixTermsAndDropOperators() {
+        assertThat(ComplaintSpecifications.toPrefixTsQuery("Hostel  fan's & !noise|")).isEqualTo("hostel:* & fans:* & noise:*");
+        assertThat(ComplaintSpecifications.toPrefixTsQuery("Wi-Fi 204")).isEqualTo("wi:* & fi:* & 204:*");
+        assertThat(ComplaintSpecifications.toPrefixTsQuery(" :*&| ")).isNull();
+    }
+
+    @Test
+    void complaintCursor_shouldRoundTripAndRejectGarbage() {
+        ComplaintCursor cursor = new ComplaintCursor(Instant.parse("2026-02-26T17:29:10.101234Z"), UUID.randomUUID());
+
+        assertThat(ComplaintCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThatThrownBy(() -> ComplaintCursor.decode("not-a-cursor"))
+            .isInstanceOf(AppException.class)
+            .hasMessage("Invalid cursor");
+    }
+}
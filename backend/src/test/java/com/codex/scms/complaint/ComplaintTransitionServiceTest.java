@@ -1,15 +1,20 @@
 package com.codex.scms.complaint;
 
-import com.codex.scms.ai.AiClassificationService;
 import com.codex.scms.common.AppException;
 import com.codex.scms.domain.entity.Complaint;
+import com.codex.scms.domain.entity.Department;
+import com.codex.scms.domain.entity.EmailOutboxMessage;
 import com.codex.scms.domain.entity.User;
+import com.codex.scms.domain.enums.ComplaintEventType;
 import com.codex.scms.domain.enums.ComplaintStatus;
+import com.codex.scms.domain.enums.EmailOutboxStatus;
+import com.codex.scms.domain.enums.EventActorType;
 import com.codex.scms.domain.enums.UserRole;
 import com.codex.scms.email.DepartmentMailService;
 import com.codex.scms.repository.ComplaintEventRepository;
 import com.codex.scms.repository.ComplaintRepository;
 import com.codex.scms.repository.DepartmentRepository;
+import com.codex.scms.repository.EmailOutboxRepository;
 import com.codex.scms.repository.UserRepository;
 import com.codex.scms.security.AuthenticatedUser;
 import com.codex.scms.security.JwtService;
@@ -17,16 +22,23 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,9 +49,11 @@ class ComplaintTransitionServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private DepartmentRepository departmentRepository;
     @Mock private ComplaintMapper complaintMapper;
-    @Mock private AiClassificationService aiClassificationService;
     @Mock private DepartmentMailService departmentMailService;
+    @Mock private EmailOutboxRepository emailOutboxRepository;
     @Mock private JwtService jwtService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private ComplaintKpiStore complaintKpiStore;
 
     private ComplaintService complaintService;
 
@@ -51,9 +65,11 @@ class ComplaintTransitionServiceTest {
             userRepository,
             departmentRepository,
             complaintMapper,
-            aiClassificationService,
             departmentMailService,
-            jwtService
+            emailOutboxRepository,
+            jwtService,
+            eventPublisher,
+            complaintKpiStore
         );
     }
 
@@ -73,7 +89,7 @@ class ComplaintTransitionServiceTest {
 
         when(complaintRepository.findWithDetailsById(complaintId)).thenReturn(Optional.of(complaint));
         when(complaintRepository.save(any(Complaint.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(complaintMapper.toDetail(any(Complaint.class))).thenReturn(null);
+        when(complaintMapper.toDetail(any(Complaint.class), anyList(), any())).thenReturn(null);
 
         complaintService.markResolved(principal, complaintId, new ComplaintDtos.MarkResolvedRequest("done"));
 
@@ -105,4 +121,97 @@ class ComplaintTransitionServiceTest {
             .isInstanceOf(AppException.class)
             .hasMessageContaining("overdue or after acknowledgement/action");
     }
+
+    @Test
+    void recordDepartmentEmailSent_shouldKeepAckReceivedWhileTheEmailWasQueued() {
+        Department department = new Department();
+        department.setId(UUID.randomUUID());
+        Complaint complaint = new Complaint();
+        complaint.setId(UUID.randomUUID());
+        complaint.setAssignedDepartment(department);
+        complaint.setStatus(ComplaintStatus.ASSIGNED_TO_DEPARTMENT);
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(UUID.randomUUID());
+        message.setComplaintId(complaint.getId());
+        message.setDepartmentId(department.getId());
+        message.setRequestedBy(EventActorType.SYSTEM);
+        message.setStatus(EmailOutboxStatus.PENDING);
+
+        when(complaintRepository.findWithDetailsById(complaint.getId())).thenReturn(Optional.of(complaint));
+        when(complaintRepository.findForUpdateById(complaint.getId())).thenReturn(Optional.of(complaint));
+        when(complaintRepository.save(any(Complaint.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(emailOutboxRepository.findById(message.getId())).thenReturn(Optional.of(message));
+
+        complaintService.manualAcknowledge(complaint.getId(), new ComplaintDtos.ManualAcknowledgeRequest("seen"));
+        Instant ackedAt = complaint.getAckReceivedAt();
+        complaintService.recordDepartmentEmailSent(message.getId(), Instant.now());
+
+        assertThat(message.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+        assertThat(complaint.getStatus()).isEqualTo(ComplaintStatus.ACK_RECEIVED);
+        assertThat(complaint.getAckReceivedAt()).isEqualTo(ackedAt).isNotNull();
+        assertThat(complaint.getSlaDueAt()).isNull();
+        assertThat(complaint.getEvents()).anyMatch(e -> e.getEventType() == ComplaintEventType.EMAIL_SENT);
+        verify(eventPublisher, never()).publishEvent(ArgumentMatchers.<Object>argThat(
+            event -> event instanceof SlaDeadlineChangedEvent changed && changed.slaDueAt() != null));
+    }
+
+    @Test
+    void resendDepartmentEmail_shouldReopenTheSlaOfAnAcknowledgedComplaint() {
+        Department department = new Department();
+        department.setId(UUID.randomUUID());
+        Complaint complaint = new Complaint();
+        complaint.setId(UUID.randomUUID());
+        complaint.setAssignedDepartment(department);
+        complaint.setStatus(ComplaintStatus.ACK_RECEIVED);
+        complaint.setAckReceivedAt(Instant.now());
+
+        when(complaintRepository.findWithDetailsById(complaint.getId())).thenReturn(Optional.of(complaint));
+        when(complaintRepository.findForUpdateById(complaint.getId())).thenReturn(Optional.of(complaint));
+        when(complaintRepository.save(any(Complaint.class))).thenAnswer(inv -> inv.getArgument(0));
+        ArgumentCaptor<EmailOutboxMessage> queued = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+
+        complaintService.resendDepartmentEmail(complaint.getId());
+        verify(emailOutboxRepository).save(queued.capture());
+        EmailOutboxMessage message = queued.getValue();
+        message.setId(UUID.randomUUID());
+        when(emailOutboxRepository.findById(message.getId())).thenReturn(Optional.of(message));
+        Instant sentAt = Instant.now();
+        complaintService.recordDepartmentEmailSent(message.getId(), sentAt);
+
+        assertThat(message.getQueuedStatus()).isEqualTo(ComplaintStatus.ACK_RECEIVED);
+        assertThat(complaint.getStatus()).isEqualTo(ComplaintStatus.EMAIL_SENT);
+        assertThat(complaint.getAckReceivedAt()).isNull();
+        assertThat(complaint.getSlaDueAt()).isEqualTo(sentAt.plus(7, ChronoUnit.DAYS));
+    }
+
+    @Test
+    void prepareDepartmentDigest_shouldSkipComplaintsReassignedOrClosedWhileQueued() {
+        Department department = new Department();
+        department.setId(UUID.randomUUID());
+        Department other = new Department();
+        other.setId(UUID.randomUUID());
+        Complaint waiting = digestMember(department, ComplaintStatus.ASSIGNED_TO_DEPARTMENT);
+        Complaint reassigned = digestMember(other, ComplaintStatus.ASSIGNED_TO_DEPARTMENT);
+        Complaint closed = digestMember(department, ComplaintStatus.CLOSED);
+        DepartmentMailService.OutgoingEmail digest =
+            new DepartmentMailService.OutgoingEmail(null, "dept@example.com", "[Digest]", "<p>x</p>");
+
+        when(departmentRepository.findById(department.getId())).thenReturn(Optional.of(department));
+        when(departmentMailService.prepareDigestEmail(department, List.of(waiting))).thenReturn(digest);
+
+        Optional<ComplaintService.PreparedDigest> prepared = complaintService.prepareDepartmentDigest(
+            department.getId(), List.of(waiting.getId(), reassigned.getId(), closed.getId()));
+
+        assertThat(prepared).isPresent();
+        assertThat(prepared.get().complaintIds()).containsExactly(waiting.getId());
+    }
+
+    private Complaint digestMember(Department assignedTo, ComplaintStatus status) {
+        Complaint complaint = new Complaint();
+        complaint.setId(UUID.randomUUID());
+        complaint.setAssignedDepartment(assignedTo);
+        complaint.setStatus(status);
+        when(complaintRepository.findWithDetailsById(complaint.getId())).thenReturn(Optional.of(complaint));
+        return complaint;
+    }
 }
@@ -0,0 +1,110 @@
+package com.codex.scms.complaint;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.entity.EmailOutboxMessage;
+import com.codex.scms.email.DepartmentMailService;
+import com.codex.scms.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentEmailRelayTest {
+
+    @Mock private EmailOutboxRepository emailOutboxRepository;
+    @Mock private ComplaintService complaintService;
+    @Mock private DepartmentMailService departmentMailService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @Test
+    void relayDueEmails_shouldRecordSuccessAndScheduleRetryOnFailure() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getEmailOutbox().setMaxAttempts(3);
+        EmailOutboxMessage delivered = message(0);
+        EmailOutboxMessage failing = message(0);
+        EmailOutboxMessage exhausted = message(2);
+        when(emailOutboxRepository.lockDue(any(Instant.class), anyInt())).thenReturn(List.of(delivered, failing, exhausted));
+
+        DepartmentMailService.OutgoingEmail ok = email(delivered);
+        DepartmentMailService.OutgoingEmail bad = email(failing);
+        DepartmentMailService.OutgoingEmail worse = email(exhausted);
+        when(complaintService.prepareDepartmentEmail(delivered.getComplaintId(), delivered.getDepartmentId())).thenReturn(Optional.of(ok));
+        when(complaintService.prepareDepartmentEmail(failing.getComplaintId(), failing.getDepartmentId())).thenReturn(Optional.of(bad));
+        when(complaintService.prepareDepartmentEmail(exhausted.getComplaintId(), exhausted.getDepartmentId())).thenReturn(Optional.of(worse));
+        Map<DepartmentMailService.OutgoingEmail, Exception> failures = new IdentityHashMap<>();
+        failures.put(bad, new MailSendException("smtp down"));
+        failures.put(worse, new MailSendException("smtp down"));
+        when(departmentMailService.sendAll(List.of(ok, bad, worse))).thenReturn(failures);
+
+        new DepartmentEmailRelay(emailOutboxRepository, complaintService, departmentMailService, appProperties, transactionManager)
+            .relayDueEmails();
+
+        verify(complaintService).recordDepartmentEmailSent(eq(delivered.getId()), any(Instant.class));
+        verify(complaintService).recordDepartmentEmailFailure(eq(failing.getId()), eq("smtp down"), notNull());
+        verify(complaintService).recordDepartmentEmailFailure(eq(exhausted.getId()), eq("smtp down"), isNull());
+        verify(complaintService, never()).recordDepartmentEmailSent(eq(failing.getId()), any());
+    }
+
+    @Test
+    void relayDueEmails_shouldSendOneDigestAndCancelReassignedComplaints() {
+        AppProperties appProperties = new AppProperties();
+        UUID departmentId = UUID.randomUUID();
+        EmailOutboxMessage first = message(0);
+        EmailOutboxMessage second = message(0);
+        EmailOutboxMessage reassigned = message(0);
+        when(emailOutboxRepository.findDepartmentsWithDueDigest(any(Instant.class), any(Instant.class), anyInt()))
+            .thenReturn(List.of(departmentId));
+        when(emailOutboxRepository.lockDigest(eq(departmentId), any(Instant.class), anyInt()))
+            .thenReturn(List.of(first, second, reassigned));
+
+        DepartmentMailService.OutgoingEmail digest =
+            new DepartmentMailService.OutgoingEmail(null, "dept@example.com", "[Digest]", "<p>x</p>");
+        when(complaintService.prepareDepartmentDigest(departmentId,
+            List.of(first.getComplaintId(), second.getComplaintId(), reassigned.getComplaintId())))
+            .thenReturn(Optional.of(new ComplaintService.PreparedDigest(digest,
+                List.of(first.getComplaintId(), second.getComplaintId()))));
+        when(departmentMailService.sendAll(List.of(digest))).thenReturn(Map.of());
+
+        new DepartmentEmailRelay(emailOutboxRepository, complaintService, departmentMailService, appProperties, transactionManager)
+            .relayDueEmails();
+
+        verify(departmentMailService, times(1)).sendAll(any());
+        verify(complaintService).recordDepartmentEmailSent(eq(first.getId()), any(Instant.class));
+        verify(complaintService).recordDepartmentEmailSent(eq(second.getId()), any(Instant.class));
+        verify(complaintService).cancelDepartmentEmail(reassigned.getId());
+        verify(complaintService, never()).recordDepartmentEmailSent(eq(reassigned.getId()), any());
+    }
+
+    private EmailOutboxMessage message(int attempts) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(UUID.randomUUID());
+        message.setComplaintId(UUID.randomUUID());
+        message.setDepartmentId(UUID.randomUUID());
+        message.setAttempts(attempts);
+        return message;
+    }
+
+    private DepartmentMailService.OutgoingEmail email(EmailOutboxMessage message) {
+        return new DepartmentMailService.OutgoingEmail(message.getComplaintId(), "dept@example.com", "subject", "<p>x</p>");
+    }
+}
@@ -0,0 +1,64 @@
+package com.codex.scms.department;
+
+import com.codex.scms.domain.entity.Department;
+import com.codex.scms.repository.DepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentIndexTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    private DepartmentIndex departmentIndex;
+    private Department hostel;
+    private Department it;
+    private Department plumbing;
+
+    @BeforeEach
+    void setUp() {
+        hostel = department("Hostel");
+        it = department("IT");
+        plumbing = department("Plumbing & Sanitation");
+        when(departmentRepository.findAll()).thenReturn(List.of(hostel, it, plumbing));
+        departmentIndex = new DepartmentIndex(departmentRepository);
+        departmentIndex.rebuild();
+    }
+
+    @Test
+    void resolve_shouldMatchNamesAliasesAndCloseLabelsWithoutQueries() {
+        assertThat(departmentIndex.resolve(" hostel ")).contains(hostel);
+        assertThat(departmentIndex.resolve("IT Department")).contains(it);
+        assertThat(departmentIndex.resolve("Information Technology")).contains(it);
+        assertThat(departmentIndex.resolve("Hostel Maintenance")).contains(hostel);
+        assertThat(departmentIndex.resolve("Plumbing")).contains(plumbing);
+        assertThat(departmentIndex.resolve("Mess")).isEmpty();
+        assertThat(departmentIndex.resolve("null")).isEmpty();
+
+        verify(departmentRepository).findAll();
+        verifyNoMoreInteractions(departmentRepository);
+    }
+
+    @Test
+    void normalizeLabel_shouldCollapseSeparatorsAndDropDepartmentWord() {
+        assertThat(DepartmentIndex.normalizeLabel("  Plumbing & Sanitation Department!! ")).isEqualTo("plumbing and sanitation");
+        assertThat(DepartmentIndex.normalizeLabel("--")).isEmpty();
+    }
+
+    private Department department(String name) {
+        Department department = new Department();
+        department.setName(name);
+        return department;
+    }
+}
@@ -13,10 +13,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -41,7 +45,7 @@ class DepartmentMailServiceTest {
     }
 
     @Test
-    void sendAssignmentEmail_shouldGenerateAckLinkAndSendHtmlMail() {
+    void sendAll_shouldSendPreparedAssignmentEmailWithAckLink() {
         Complaint complaint = new Complaint();
         complaint.setId(UUID.fromString("11111111-1111-1111-1111-111111111111"));
         Department department = new Department();
@@ -52,9 +56,13 @@ class DepartmentMailServiceTest {
         when(emailTemplateService.renderDepartmentAssignmentEmail(any(), any(), any())).thenReturn("<html>ok</html>");
         when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage(Session.getInstance(new Properties())));
 
-        departmentMailService.sendAssignmentEmail(complaint);
+        DepartmentMailService.OutgoingEmail email = departmentMailService.prepareAssignmentEmail(complaint);
+        Map<DepartmentMailService.OutgoingEmail, Exception> failures = departmentMailService.sendAll(List.of(email));
 
-        verify(emailTemplateService).renderDepartmentAssignmentEmail(any(), any(), any());
+        assertThat(email.to()).isEqualTo("electrical@example.edu");
+        assertThat(failures).isEmpty();
+        verify(emailTemplateService).renderDepartmentAssignmentEmail(any(), any(), eq(
+            "http://localhost:8080/api/complaints/" + complaint.getId() + "/acknowledge-link?token=ack-token"));
         verify(javaMailSender).send(any(MimeMessage.class));
     }
 }
@@ -0,0 +1,114 @@
+package com.codex.scms.email;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.entity.Complaint;
+import com.codex.scms.domain.entity.ComplaintImage;
+import com.codex.scms.domain.enums.ComplaintSeverity;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class EmailTemplateServiceTest {
+
+    private final DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+    private final EmailTemplateService emailTemplateService = new EmailTemplateService(resourceLoader, new AppProperties());
+
+    @Test
+    void renderDepartmentAssignmentEmail_shouldFillEverySlotAndEscapeUserText() {
+        String html = emailTemplateService.renderDepartmentAssignmentEmail(complaint(), "CMP-1", "https://x/ack?token=t");
+
+        assertThat(html).doesNotContain("{{");
+        assertThat(html).contains("Fan &lt;broken&gt; &amp; noisy");
+        assertThat(html).contains("<li><a href=\"https://img/1.png?a=1&amp;b=2\">");
+        assertThat(html).contains("https://x/ack?token=t");
+        assertThat(html).contains("TBD");
+    }
+
+    @Test
+    void renderDepartmentDigestEmail_shouldListEveryComplaintWithItsOwnAckLink() {
+        String html = emailTemplateService.renderDepartmentDigestEmail("Electrical & Power", List.of(
+            new EmailTemplateService.DigestEntry(complaint(), "CMP-1", "https://x/ack?token=1"),
+            new EmailTemplateService.DigestEntry(complaint(), "CMP-2", "https://x/ack?token=2")
+        ));
+
+        assertThat(html).doesNotContain("{{");
+        assertThat(html).contains("Electrical &amp; Power");
+        assertThat(html).contains("CMP-1", "CMP-2", "https://x/ack?token=1", "https://x/ack?token=2");
+        assertThat(html).contains("Fan &lt;broken&gt; &amp; noisy");
+    }
+
+    @Test
+    void compiledTemplate_shouldKeepUnknownPlaceholdersAndRawSlots() {
+        CompiledTemplate template = CompiledTemplate.compile("a{{X}}b{{RAW}}c{{MISSING}}d{{", Set.of("RAW"));
+
+        assertThat(template.render(Map.of("X", "<x>", "RAW", "<b>y</b>"))).isEqualTo("a&lt;x&gt;b<b>y</b>c{{MISSING}}d{{");
+    }
+
+    /** Run with -Dscms.benchmarks=true to compare against the previous load-and-replace rendering; reports only. */
+    @Test
+    @EnabledIfSystemProperty(named = "scms.benchmarks", matches = "true")
+    void benchmark_bulkRendering() throws IOException {
+        Complaint complaint = complaint();
+        int iterations = 20_000;
+        for (int i = 0; i < 2_000; i++) {
+            legacyRender(complaint);
+            emailTemplateService.renderDepartmentAssignmentEmail(complaint, "CMP-1", "https://x/ack?token=t");
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            legacyRender(complaint);
+        }
+        long legacyNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            emailTemplateService.renderDepartmentAssignmentEmail(complaint, "CMP-1", "https://x/ack?token=t");
+        }
+        long compiledNanos = System.nanoTime() - start;
+
+        log.info(String.format("email render x%d: load+replace %.1f ms, compiled %.1f ms (%.1fx)",
+            iterations, legacyNanos / 1e6, compiledNanos / 1e6, (double) legacyNanos / compiledNanos));
+    }
+
+    private String legacyRender(Complaint complaint) throws IOException {
+        String template = new String(resourceLoader.getResource("classpath:templates/department-assignment-email.html")
+            .getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        return template
+            .replace("{{COMPLAINT_REF}}", "CMP-1")
+            .replace("{{TITLE}}", complaint.getTitle().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;"))
+            .replace("{{DESCRIPTION}}", complaint.getDescription().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;"))
+            .replace("{{AREA}}", complaint.getArea().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;"))
+            .replace("{{COMPLAINT_DATE}}", complaint.getComplaintDate().toString())
+            .replace("{{SEVERITY}}", complaint.getAiSeverity().name())
+            .replace("{{SLA_DUE_AT}}", "TBD")
+            .replace("{{ACK_URL}}", "https://x/ack?token=t")
+            .replace("{{IMAGE_LIST}}", "<li><a href=\"https://img/1.png\">https://img/1.png</a></li>");
+    }
+
+    private Complaint complaint() {
+        Complaint complaint = new Complaint();
+        complaint.setId(UUID.randomUUID());
+        complaint.setTitle("Fan <broken> & noisy");
+        complaint.setDescription("The ceiling fan in room 204 makes a grinding noise and stops after a few minutes.");
+        complaint.setArea("Hostel A");
+        complaint.setComplaintDate(LocalDate.of(2026, 2, 26));
+        complaint.setAiSeverity(ComplaintSeverity.MEDIUM);
+        ComplaintImage image = new ComplaintImage();
+        image.setImageUrl("https://img/1.png?a=1&b=2");
+        complaint.getImages().add(image);
+        return complaint;
+    }
+}
@@ -1,32 +1,30 @@
 package com.codex.scms.scheduler;
 
-import com.codex.scms.ai.AiClassificationService;
 import com.codex.scms.complaint.ComplaintMapper;
+import com.codex.scms.complaint.ComplaintKpiStore;
 import com.codex.scms.complaint.ComplaintService;
-import com.codex.scms.domain.entity.Complaint;
-import com.codex.scms.domain.entity.User;
-import com.codex.scms.domain.enums.ComplaintEventType;
-import com.codex.scms.domain.enums.ComplaintStatus;
 import com.codex.scms.email.DepartmentMailService;
 import com.codex.scms.repository.ComplaintEventRepository;
 import com.codex.scms.repository.ComplaintRepository;
 import com.codex.scms.repository.DepartmentRepository;
+import com.codex.scms.repository.EmailOutboxRepository;
 import com.codex.scms.repository.UserRepository;
 import com.codex.scms.security.JwtService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.time.Instant;
-import java.util.List;
-import java.util.UUID;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,9 +35,11 @@ class ComplaintSlaFlaggingTest {
     @Mock private UserRepository userRepository;
     @Mock private DepartmentRepository departmentRepository;
     @Mock private ComplaintMapper complaintMapper;
-    @Mock private AiClassificationService aiClassificationService;
     @Mock private DepartmentMailService departmentMailService;
+    @Mock private EmailOutboxRepository emailOutboxRepository;
     @Mock private JwtService jwtService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private ComplaintKpiStore complaintKpiStore;
 
     private ComplaintService complaintService;
 
@@ -51,29 +51,40 @@ class ComplaintSlaFlaggingTest {
             userRepository,
             departmentRepository,
             complaintMapper,
-            aiClassificationService,
             departmentMailService,
-            jwtService
+            emailOutboxRepository,
+            jwtService,
+            eventPublisher,
+            complaintKpiStore
         );
     }
 
     @Test
-    void flagOverdueComplaints_shouldAddEventOncePerComplaint() {
-        Complaint complaint = new Complaint();
-        complaint.setId(UUID.randomUUID());
-        complaint.setStatus(ComplaintStatus.EMAIL_SENT);
-        complaint.setSlaDueAt(Instant.now().minusSeconds(3600));
-        complaint.setStudent(new User());
+    void flagOverdueComplaints_shouldVisitEveryPartitionOnce() {
+        when(complaintRepository.flagOverdue(any(), startsWith("SLA overdue"), anyInt(), anyInt(), anyInt())).thenReturn(0);
+
+        int flagged = complaintService.flagOverdueComplaints();
 
-        when(complaintRepository.findByStatusAndSlaDueAtBeforeAndAckReceivedAtIsNull(eq(ComplaintStatus.EMAIL_SENT), any()))
-            .thenReturn(List.of(complaint));
-        when(complaintEventRepository.existsByComplaint_IdAndEventTypeAndMessageContaining(eq(complaint.getId()), eq(ComplaintEventType.COMMENT), anyString()))
-            .thenReturn(false);
+        ArgumentCaptor<Integer> partition = ArgumentCaptor.forClass(Integer.class);
+        ArgumentCaptor<Integer> partitions = ArgumentCaptor.forClass(Integer.class);
+        verify(complaintRepository, atLeastOnce()).flagOverdue(any(), anyString(), partition.capture(), partitions.capture(), anyInt());
+        assertThat(flagged).isZero();
+        assertThat(partition.getAllValues()).doesNotHaveDuplicates().hasSize(partitions.getValue())
+            .allMatch(p -> p >= 0 && p < partitions.getValue());
+    }
+
+    @Test
+    void flagOverdueComplaints_shouldKeepClaimingWhileChunksAreFull() {
+        when(complaintRepository.flagOverdue(any(), anyString(), anyInt(), anyInt(), anyInt()))
+            .thenAnswer(invocation -> invocation.<Integer>getArgument(4))
+            .thenReturn(2, 0);
 
         int flagged = complaintService.flagOverdueComplaints();
 
-        assertThat(flagged).isEqualTo(1);
-        assertThat(complaint.getEvents()).hasSize(1);
-        assertThat(complaint.getEvents().get(0).getEventType()).isEqualTo(ComplaintEventType.COMMENT);
+        ArgumentCaptor<Integer> partitions = ArgumentCaptor.forClass(Integer.class);
+        ArgumentCaptor<Integer> limit = ArgumentCaptor.forClass(Integer.class);
+        verify(complaintRepository, atLeastOnce()).flagOverdue(any(), anyString(), anyInt(), partitions.capture(), limit.capture());
+        assertThat(limit.getAllValues()).hasSize(partitions.getValue() + 1);
+        assertThat(flagged).isEqualTo(limit.getValue() + 2);
     }
 }
@@ -0,0 +1,67 @@
+package com.codex.scms.scheduler;
+
+import com.codex.scms.complaint.ComplaintService;
+import com.codex.scms.complaint.SlaDeadlineChangedEvent;
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.repository.ComplaintRepository;
+import com.codex.scms.repository.SlaDeadlineRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SlaTimerTest {
+
+    @Mock private ComplaintService complaintService;
+    @Mock private ComplaintRepository complaintRepository;
+
+    private SlaTimer slaTimer;
+
+    @BeforeEach
+    void setUp() {
+        slaTimer = new SlaTimer(complaintService, complaintRepository, new AppProperties());
+    }
+
+    @Test
+    void fireDue_shouldFlagOnceForDeadlinesExpiringTogether() {
+        when(complaintRepository.findPendingSlaDeadlines(any())).thenReturn(List.of(
+            new SlaDeadlineRow(UUID.randomUUID(), Instant.now().minusSeconds(5)),
+            new SlaDeadlineRow(UUID.randomUUID(), Instant.now().minusSeconds(1)),
+            new SlaDeadlineRow(UUID.randomUUID(), Instant.now().plusSeconds(3600))
+        ));
+        slaTimer.reload();
+
+        slaTimer.fireDue();
+
+        verify(complaintService, times(1)).flagOverdueComplaints();
+        assertThat(slaTimer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fireDue_shouldIgnoreAcknowledgedOrRescheduledDeadlines() {
+        UUID acknowledged = UUID.randomUUID();
+        UUID resent = UUID.randomUUID();
+        slaTimer.schedule(acknowledged, Instant.now().minusSeconds(5));
+        slaTimer.schedule(resent, Instant.now().minusSeconds(5));
+
+        slaTimer.onDeadlineChanged(new SlaDeadlineChangedEvent(acknowledged, null));
+        slaTimer.onDeadlineChanged(new SlaDeadlineChangedEvent(resent, Instant.now().plusSeconds(3600)));
+        slaTimer.fireDue();
+
+        verify(complaintService, never()).flagOverdueComplaints();
+        assertThat(slaTimer.pendingCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.codex.scms.security;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationStoreTest {
+
+    @Mock private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TokenRevocationStore(revokedTokenRepository, new AppProperties());
+    }
+
+    @Test
+    void isRevoked_shouldAnswerUnrevokedTokensWithoutDatabase() {
+        when(revokedTokenRepository.findUnexpiredJtis(any())).thenReturn(List.of("revoked-1", "revoked-2"));
+        store.rebuild();
+
+        assertThat(store.isRevoked("never-revoked")).isFalse();
+
+        verify(revokedTokenRepository, never()).existsByJti(anyString());
+    }
+
+    @Test
+    void isRevoked_shouldConfirmFilterHitsOnceAndRememberTheAnswer() {
+        when(revokedTokenRepository.findUnexpiredJtis(any())).thenReturn(List.of("revoked-1"));
+        when(revokedTokenRepository.existsByJti("revoked-1")).thenReturn(true);
+        store.rebuild();
+
+        assertThat(store.isRevoked("revoked-1")).isTrue();
+        assertThat(store.isRevoked("revoked-1")).isTrue();
+
+        verify(revokedTokenRepository, times(1)).existsByJti("revoked-1");
+    }
+}
@@ -0,0 +1,104 @@
+package com.codex.scms.security;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.domain.enums.UserRole;
+import com.codex.scms.repository.UserAuthRow;
+import com.codex.scms.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserValidityCacheTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private TokenRevocationStore tokenRevocationStore;
+
+    private AppProperties appProperties;
+    private UserValidityCache cache;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getJwt().setSecret("test-secret-that-is-long-enough-for-hmac-sha-256");
+        cache = new UserValidityCache(userRepository, appProperties);
+        jwtService = new JwtService(appProperties, tokenRevocationStore);
+        jwtService.init();
+    }
+
+    @Test
+    void isValid_shouldLookUpUserOnceWithinTtl() {
+        AuthenticatedUser principal = principal(UserRole.STUDENT);
+        when(userRepository.findAuthRowById(principal.getId()))
+            .thenReturn(Optional.of(new UserAuthRow(principal.getEmail(), UserRole.STUDENT, null)));
+
+        assertThat(cache.isValid(principal, Instant.now())).isTrue();
+        assertThat(cache.isValid(principal, Instant.now())).isTrue();
+
+        verify(userRepository, times(1)).findAuthRowById(principal.getId());
+    }
+
+    @Test
+    void isValid_shouldRejectChangedRoleAfterInvalidation() {
+        AuthenticatedUser principal = principal(UserRole.ADMIN);
+        when(userRepository.findAuthRowById(principal.getId()))
+            .thenReturn(Optional.of(new UserAuthRow(principal.getEmail(), UserRole.ADMIN, null)))
+            .thenReturn(Optional.of(new UserAuthRow(principal.getEmail(), UserRole.STUDENT, null)));
+
+        assertThat(cache.isValid(principal, Instant.now())).isTrue();
+        cache.invalidate(principal.getId());
+
+        assertThat(cache.isValid(principal, Instant.now())).isFalse();
+    }
+
+    @Test
+    void isValid_shouldRejectTokensIssuedBeforeRevocationCutoff() {
+        AuthenticatedUser principal = principal(UserRole.STUDENT);
+        Instant cutoff = Instant.parse("2026-01-01T10:00:00Z");
+        when(userRepository.findAuthRowById(principal.getId()))
+            .thenReturn(Optional.of(new UserAuthRow(principal.getEmail(), UserRole.STUDENT, cutoff)));
+
+        assertThat(cache.isValid(principal, cutoff)).isFalse();
+        assertThat(cache.isValid(principal, cutoff.plusSeconds(1))).isTrue();
+    }
+
+    @Test
+    void parseAccessToken_shouldBuildPrincipalFromClaimsAndRejectAckTokens() {
+        AuthenticatedUser issued = principal(UserRole.STUDENT);
+
+        AuthenticatedUser parsed = jwtService.parseAccessToken(jwtService.generateAccessToken(issued)).principal();
+
+        assertThat(parsed.getId()).isEqualTo(issued.getId());
+        assertThat(parsed.getEmail()).isEqualTo(issued.getEmail());
+        assertThat(parsed.getRole()).isEqualTo(UserRole.STUDENT);
+        assertThatThrownBy(() -> jwtService.parseAccessToken(jwtService.generateAcknowledgementToken(UUID.randomUUID())))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parseAccessToken_shouldRejectRevokedTokens() {
+        String token = jwtService.generateAccessToken(principal(UserRole.STUDENT));
+        when(tokenRevocationStore.isRevoked(anyString())).thenReturn(true);
+
+        assertThatThrownBy(() -> jwtService.parseAccessToken(token)).isInstanceOf(JwtException.class);
+    }
+
+    private AuthenticatedUser principal(UserRole role) {
+        return new AuthenticatedUser(UUID.randomUUID(), "Test", "test@example.com", null, role);
+    }
+}
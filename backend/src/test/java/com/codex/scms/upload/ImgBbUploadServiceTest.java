@@ -0,0 +1,110 @@
+package com.codex.scms.upload;
+
+import com.codex.scms.common.AppException;
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.repository.StoredImageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+class ImgBbUploadServiceTest {
+
+    private static final String UPLOAD_URL = "https://imgbb.test/1/upload";
+
+    @TempDir Path uploadDir;
+    @Mock private StoredImageRepository storedImageRepository;
+
+    private AppProperties appProperties;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getImgbb().setBaseUrl(UPLOAD_URL);
+        appProperties.getPublicUrls().setBackendBaseUrl("http://localhost:8080");
+        appProperties.getUploads().setLocalDir(uploadDir.toString());
+        restTemplate = new RestTemplate();
+    }
+
+    @Test
+    void uploadImages_shouldSendBase64ImageAsFormEncodedValue() {
+        appProperties.getImgbb().setApiKey("key+1");
+        // Bytes chosen so the Base64 form contains '+', '/' and padding.
+        byte[] bytes = {(byte) 0xfb, (byte) 0xff, (byte) 0xbf, 0x01};
+        String expectedBody = "key=key%2B1&image=" + URLEncoder.encode(Base64.getEncoder().encodeToString(bytes), StandardCharsets.US_ASCII);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(UPLOAD_URL))
+            .andExpect(method(HttpMethod.POST))
+            .andExpect(content().string(expectedBody))
+            .andRespond(withSuccess("{\"success\":true,\"data\":{\"url\":\"https://i.test/a.png\",\"delete_url\":\"https://ibb.test/a/hash1\"}}",
+                MediaType.APPLICATION_JSON));
+
+        UploadDtos.UploadImagesResponse response = service().uploadImages(List.of(image("a.png", bytes)));
+
+        server.verify();
+        assertThat(response.images()).containsExactly(new UploadDtos.UploadedImage("https://i.test/a.png", "hash1"));
+    }
+
+    @Test
+    void uploadImages_shouldRemoveStoredImagesWhenAnotherFileFails() throws IOException {
+        appProperties.getImgbb().setApiKey("replace-with-imgbb-api-key");
+        when(storedImageRepository.findRelativePathByContentHash(anyString()))
+            .thenAnswer(invocation -> Optional.of(LocalImageStore.shardedPath(invocation.getArgument(0), ".png")));
+        when(storedImageRepository.release(anyString())).thenReturn(1);
+        when(storedImageRepository.deleteUnreferenced(anyString())).thenReturn(1);
+        MultipartFile broken = new MockMultipartFile("files", "b.png", "image/png", new byte[] {1}) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                throw new IOException("part deleted");
+            }
+        };
+
+        assertThatThrownBy(() -> service().uploadImages(List.of(image("a.png", new byte[] {1, 2}), broken)))
+            .isInstanceOf(AppException.class);
+
+        try (var stored = Files.walk(uploadDir)) {
+            assertThat(stored.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    private ImgBbUploadService service() {
+        LocalImageResolver resolver = new LocalImageResolver(appProperties);
+        return new ImgBbUploadService(restTemplate, new ObjectMapper(), appProperties, resolver,
+            new LocalImageStore(storedImageRepository, resolver), new SyncTaskExecutor());
+    }
+
+    private MockMultipartFile image(String name, byte[] bytes) {
+        return new MockMultipartFile("files", name, "image/png", bytes);
+    }
+}
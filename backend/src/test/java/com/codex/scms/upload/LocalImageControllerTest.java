@@ -0,0 +1,96 @@
+package com.codex.scms.upload;
+
+import com.codex.scms.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalImageControllerTest {
+
+    private static final String HASH = "58100dc8fc06562ce3e578231dc948e083520ee49c4b4ee5a5a28bb4b4003feb";
+    private static final String PATH = "/58/10/" + HASH + ".png";
+
+    @TempDir Path uploadDir;
+
+    private LocalImageController controller;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getUploads().setLocalDir(uploadDir.toString());
+        controller = new LocalImageController(new LocalImageResolver(appProperties));
+    }
+
+    @Test
+    void serve_shouldSendWholeFileWithImmutableCachingAndHashEtag() throws IOException {
+        storeFile("0123456789");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.serve(PATH, new MockHttpServletRequest("GET", "/uploads" + PATH), response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getContentType()).isEqualTo("image/png");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + HASH + "\"");
+        assertThat(response.getHeader("Cache-Control")).contains("max-age=31536000", "immutable");
+    }
+
+    @Test
+    void serve_shouldAnswerRevalidationWithoutTheFile() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads" + PATH);
+        request.addHeader("If-None-Match", "\"" + HASH + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.serve(PATH, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentLength()).isZero();
+    }
+
+    @Test
+    void serve_shouldHonourSingleByteRange() throws IOException {
+        storeFile("0123456789");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads" + PATH);
+        request.addHeader("Range", "bytes=2-4");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.serve(PATH, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("234");
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 2-4/10");
+
+        MockHttpServletRequest beyond = new MockHttpServletRequest("GET", "/uploads" + PATH);
+        beyond.addHeader("Range", "bytes=20-");
+        MockHttpServletResponse unsatisfiable = new MockHttpServletResponse();
+        controller.serve(PATH, beyond, unsatisfiable);
+        assertThat(unsatisfiable.getStatus()).isEqualTo(416);
+        assertThat(unsatisfiable.getHeader("Content-Range")).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void serve_shouldNotExposeIncomingUploads() throws IOException {
+        Files.createDirectories(uploadDir.resolve(".incoming"));
+        Files.writeString(uploadDir.resolve(".incoming/upload-1.part"), "partial");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.serve("/.incoming/upload-1.part", new MockHttpServletRequest("GET", "/uploads/.incoming/upload-1.part"), response);
+
+        assertThat(response.getStatus()).isEqualTo(404);
+    }
+
+    private void storeFile(String content) throws IOException {
+        Path file = uploadDir.resolve(PATH.substring(1));
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+}
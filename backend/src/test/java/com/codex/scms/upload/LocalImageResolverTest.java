@@ -0,0 +1,32 @@
+package com.codex.scms.upload;
+
+import com.codex.scms.config.AppProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalImageResolverTest {
+
+    @TempDir Path uploadDir;
+
+    @Test
+    void read_shouldIgnoreHiddenAndIncomingPaths() throws IOException {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getPublicUrls().setBackendBaseUrl("http://localhost:8080");
+        appProperties.getUploads().setLocalDir(uploadDir.toString());
+        LocalImageResolver resolver = new LocalImageResolver(appProperties);
+        Files.createDirectories(uploadDir.resolve(".incoming"));
+        Files.writeString(uploadDir.resolve(".incoming/upload-1.part"), "partial");
+        Files.createDirectories(uploadDir.resolve("ab/cd"));
+        Files.writeString(uploadDir.resolve("ab/cd/photo.png"), "stored");
+
+        assertThat(resolver.read("http://localhost:8080/uploads/.incoming/upload-1.part", 1024)).isEmpty();
+        assertThat(resolver.read("http://localhost:8080/uploads/ab/../.incoming/upload-1.part", 1024)).isEmpty();
+        assertThat(resolver.read("http://localhost:8080/uploads/ab/cd/photo.png", 1024)).isPresent();
+    }
+}
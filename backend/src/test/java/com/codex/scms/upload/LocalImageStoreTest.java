@@ -0,0 +1,80 @@
+package com.codex.scms.upload;
+
+import com.codex.scms.config.AppProperties;
+import com.codex.scms.repository.StoredImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LocalImageStoreTest {
+
+    private static final String HASH = "b2bb1a4d0f1a0c5fc93e9e2b1e8fd0fbbb1d7a4ba8d1c2f1a6b0e2e7d6b1d1f1";
+
+    @TempDir Path uploadDir;
+    @Mock private StoredImageRepository storedImageRepository;
+
+    private LocalImageStore store;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getPublicUrls().setBackendBaseUrl("http://localhost:8080");
+        appProperties.getUploads().setLocalDir(uploadDir.toString());
+        store = new LocalImageStore(storedImageRepository, new LocalImageResolver(appProperties));
+    }
+
+    @Test
+    void store_shouldKeepOneShardedFilePerContent() throws IOException {
+        when(storedImageRepository.findRelativePathByContentHash(anyString()))
+            .thenAnswer(invocation -> Optional.of(LocalImageStore.shardedPath(invocation.getArgument(0), ".jpg")));
+
+        UploadDtos.UploadedImage first = store.store(photo("a.jpg"));
+        UploadDtos.UploadedImage second = store.store(photo("copy-of-a.jpg"));
+
+        assertThat(second).isEqualTo(first);
+        String hash = first.deleteHash().substring(6, 70);
+        assertThat(first.deleteHash()).isEqualTo(hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + ".jpg");
+        assertThat(first.url()).isEqualTo("http://localhost:8080/uploads/" + first.deleteHash());
+        try (var files = Files.walk(uploadDir)) {
+            assertThat(files.filter(Files::isRegularFile)).containsExactly(uploadDir.resolve(first.deleteHash()));
+        }
+        verify(storedImageRepository, times(2)).acquire(anyString(), eq(first.deleteHash()), eq(10L));
+    }
+
+    @Test
+    void release_shouldDeleteFileOnlyWhenLastReferenceGoes() throws IOException {
+        String relativePath = LocalImageStore.shardedPath(HASH, ".png");
+        Path file = uploadDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[] {1});
+        when(storedImageRepository.release(HASH)).thenReturn(1);
+        when(storedImageRepository.deleteUnreferenced(HASH)).thenReturn(0).thenReturn(1);
+
+        store.release(relativePath);
+        assertThat(file).exists();
+
+        store.release(relativePath);
+        assertThat(file).doesNotExist();
+    }
+
+    private MockMultipartFile photo(String name) {
+        return new MockMultipartFile("files", name, "image/jpeg", "same photo".getBytes());
+    }
+}
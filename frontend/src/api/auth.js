@@ -10,4 +10,7 @@ export const authApi = {
   me() {
     return api.get('/api/auth/me').then(unwrap)
   },
+  logout(token) {
+    return api.post('/api/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }).then(unwrap)
+  },
 }
@@ -10,6 +10,9 @@ export const studentComplaintsApi = {
   get(id) {
     return api.get(`/api/student/complaints/${id}`).then(unwrap)
   },
+  events(id, params) {
+    return api.get(`/api/student/complaints/${id}/events`, { params }).then(unwrap)
+  },
   create(payload) {
     return api.post('/api/student/complaints', payload).then(unwrap)
   },
@@ -31,6 +34,9 @@ export const adminComplaintsApi = {
   get(id) {
     return api.get(`/api/admin/complaints/${id}`).then(unwrap)
   },
+  events(id, params) {
+    return api.get(`/api/admin/complaints/${id}/events`, { params }).then(unwrap)
+  },
   assignDepartment(id, payload) {
     return api.post(`/api/admin/complaints/${id}/assign-department`, payload).then(unwrap)
   },
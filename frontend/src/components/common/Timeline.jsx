@@ -1,14 +1,45 @@
+import { useEffect, useState } from 'react'
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card'
 import { Badge } from '@/components/ui/badge'
+import { Button } from '@/components/ui/button'
 import { formatDateTime } from '@/utils/format'
 
-export function Timeline({ events = [] }) {
+const NO_EVENTS = []
+
+// `latest` holds the newest events in chronological order; older pages come newest-first from `loadOlder(cursor)`.
+export function Timeline({ events: latest = NO_EVENTS, nextCursor = null, loadOlder }) {
+  const [older, setOlder] = useState([])
+  const [cursor, setCursor] = useState(nextCursor)
+  const [loading, setLoading] = useState(false)
+
+  useEffect(() => {
+    setOlder([])
+    setCursor(nextCursor)
+  }, [latest, nextCursor])
+
+  const showOlder = async () => {
+    setLoading(true)
+    try {
+      const page = await loadOlder(cursor)
+      setOlder((current) => [...page.items.slice().reverse(), ...current])
+      setCursor(page.nextCursor)
+    } finally {
+      setLoading(false)
+    }
+  }
+
+  const events = [...older, ...latest]
   return (
     <Card>
       <CardHeader>
         <CardTitle>Timeline / Audit Trail</CardTitle>
       </CardHeader>
       <CardContent className="space-y-4">
+        {cursor && loadOlder ? (
+          <Button variant="outline" size="sm" onClick={showOlder} disabled={loading}>
+            {loading ? 'Loading...' : 'Show older events'}
+          </Button>
+        ) : null}
         {events.length === 0 ? (
           <p className="text-sm text-muted-foreground">No timeline events yet.</p>
         ) : (
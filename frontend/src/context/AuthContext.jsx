@@ -75,7 +75,12 @@ export function AuthProvider({ children }) {
   }
 
   function logout() {
+    const currentToken = authStorage.getToken()
     authStorage.clear()
+    if (currentToken) {
+      // Best effort: the local session is gone either way.
+      authApi.logout(currentToken).catch(() => {})
+    }
     setUser(null)
     setToken(null)
     setIsBootstrapping(false)
@@ -226,7 +226,11 @@ export default function AdminComplaintDetailsPage() {
             </CardContent>
           </Card>
 
-          <Timeline events={complaint.timeline} />
+          <Timeline
+            events={complaint.timeline}
+            nextCursor={complaint.timelineCursor}
+            loadOlder={(cursor) => adminComplaintsApi.events(id, { cursor })}
+          />
         </div>
       </div>
     </div>
@@ -142,7 +142,11 @@ export default function StudentComplaintDetailsPage() {
             </CardContent>
           </Card>
 
-          <Timeline events={complaint.timeline} />
+          <Timeline
+            events={complaint.timeline}
+            nextCursor={complaint.timelineCursor}
+            loadOlder={(cursor) => studentComplaintsApi.events(id, { cursor })}
+          />
         </div>
       </div>
     </div>